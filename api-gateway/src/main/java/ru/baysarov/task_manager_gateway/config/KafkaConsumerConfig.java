@@ -0,0 +1,43 @@
+package ru.baysarov.task_manager_gateway.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+
+  @Value("${kafka.bootstrap-servers:localhost:9097,localhost:9098,localhost:9099}")
+  private String bootstrapServers;
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> tokenRevocationListenerFactory() {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(tokenRevocationConsumerFactory());
+    return factory;
+  }
+
+  /**
+   * Потребитель без группы: разделы топика отозванных токенов назначаются слушателю
+   * вручную и читаются с начала (см. {@link KafkaPartitionAssigner}), смещения не фиксируются.
+   */
+  @Bean
+  public ConsumerFactory<String, String> tokenRevocationConsumerFactory() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+        new StringDeserializer());
+  }
+}
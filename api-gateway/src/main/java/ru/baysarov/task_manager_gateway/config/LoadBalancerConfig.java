@@ -0,0 +1,15 @@
+package ru.baysarov.task_manager_gateway.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+import ru.baysarov.task_manager_gateway.loadbalancer.PowerOfTwoChoicesConfiguration;
+
+/**
+ * Подключает балансировку с учетом нагрузки для всех сервисов ({@code lb://} маршруты и
+ * балансирующий {@code WebClient}).
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PowerOfTwoChoicesConfiguration.class)
+public class LoadBalancerConfig {
+
+}
@@ -0,0 +1,63 @@
+package ru.baysarov.task_manager_gateway.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки ограничения частоты запросов пользователей ({@code gateway.rate-limit}).
+ * <p>
+ * Лимит для запроса выбирается так: наибольший из лимитов ролей пользователя, заданных для
+ * маршрута, затем лимит маршрута, затем {@code default-limit}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+  /** Включает ограничение частоты запросов. */
+  private boolean enabled = true;
+
+  /** Время бездействия пользователя, после которого его счетчик удаляется из памяти. */
+  private Duration idleTimeout = Duration.ofMinutes(10);
+
+  /** Максимальное количество пользователей, для которых хранятся счетчики на одном маршруте. */
+  private long maximumKeys = 100_000;
+
+  /** Лимит по умолчанию. */
+  private Limit defaultLimit = new Limit();
+
+  /** Лимиты маршрутов по идентификатору маршрута. */
+  private Map<String, RouteLimits> routes = new HashMap<>();
+
+  /**
+   * Лимиты маршрута.
+   */
+  @Getter
+  @Setter
+  public static class RouteLimits {
+
+    /** Лимит маршрута; если не задан, используется {@code default-limit}. */
+    private Limit limit;
+
+    /** Лимиты маршрута для ролей. */
+    private Map<String, Limit> roles = new HashMap<>();
+  }
+
+  /**
+   * Лимит частоты запросов.
+   */
+  @Getter
+  @Setter
+  public static class Limit {
+
+    /** Количество запросов в секунду, восполняемое непрерывно. */
+    private double rate = 20;
+
+    /** Количество запросов, которое можно выполнить подряд без ожидания. */
+    private int burst = 40;
+  }
+}
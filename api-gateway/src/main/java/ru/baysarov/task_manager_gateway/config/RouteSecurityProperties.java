@@ -0,0 +1,40 @@
+package ru.baysarov.task_manager_gateway.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.baysarov.task_manager_gateway.filter.AccessLevel;
+
+/**
+ * Настройки доступа к маршрутам шлюза ({@code gateway.security}).
+ * <p>
+ * Правила проверяются в порядке объявления, применяется первое подходящее. Если ни одно правило
+ * не подошло, используется {@code default-access}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.security")
+public class RouteSecurityProperties {
+
+  private AccessLevel defaultAccess = AccessLevel.AUTHENTICATED;
+  private List<Rule> rules = new ArrayList<>();
+
+  /**
+   * Правило доступа для шаблона пути.
+   */
+  @Getter
+  @Setter
+  public static class Rule {
+
+    /** Шаблон пути в синтаксисе {@code PathPattern}, например {@code /api/v1/tasks/**}. */
+    private String pattern;
+
+    /** Уровень доступа. */
+    private AccessLevel access = AccessLevel.AUTHENTICATED;
+
+    /** Роли, одна из которых требуется для уровня {@link AccessLevel#ROLE}. */
+    private List<String> roles = new ArrayList<>();
+  }
+}
@@ -1,9 +1,16 @@
 package ru.baysarov.task_manager_gateway.config;
 
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
@@ -13,5 +20,81 @@ public class WebClientConfig {
   public WebClient.Builder loadBanalcedWebClientBuilder() {
     return WebClient.builder();
   }
-}
 
+  /**
+   * Пул соединений к Auth-сервису. Метрики пула (активные, простаивающие соединения, ожидающие
+   * получения соединения запросы) публикуются в actuator как {@code reactor.netty.connection.provider.*}
+   * с тегом {@code name=auth}.
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider authConnectionProvider(
+      @Value("${auth.client.pool.max-connections:200}") int maxConnections,
+      @Value("${auth.client.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+      @Value("${auth.client.pool.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+      @Value("${auth.client.pool.max-idle-time:30s}") Duration maxIdleTime,
+      @Value("${auth.client.pool.max-life-time:5m}") Duration maxLifeTime) {
+    return ConnectionProvider.builder("auth")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(pendingAcquireMaxCount)
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .maxLifeTime(maxLifeTime)
+        .evictInBackground(maxIdleTime)
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * Долгоживущий клиент для запросов к Auth-сервису. Создается один раз из балансирующего
+   * {@link WebClient.Builder}, поэтому поддерживает адреса вида {@code http://AUTH/...}.
+   */
+  @Bean
+  public WebClient authWebClient(@LoadBalanced WebClient.Builder webClientBuilder,
+      @Qualifier("authConnectionProvider") ConnectionProvider authConnectionProvider,
+      @Value("${auth.client.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${auth.client.response-timeout:2s}") Duration responseTimeout) {
+    HttpClient httpClient = HttpClient.create(authConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .keepAlive(true)
+        .responseTimeout(responseTimeout);
+    return webClientBuilder.clone()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+
+  /**
+   * Пул соединений для запросов, которые шлюз отправляет сервисам сам (агрегирующие эндпоинты).
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider servicesConnectionProvider(
+      @Value("${gateway.client.pool.max-connections:200}") int maxConnections,
+      @Value("${gateway.client.pool.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+      @Value("${gateway.client.pool.max-idle-time:30s}") Duration maxIdleTime) {
+    return ConnectionProvider.builder("services")
+        .maxConnections(maxConnections)
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .evictInBackground(maxIdleTime)
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * Долгоживущий балансирующий клиент для запросов к TASK-MANAGEMENT, STATISTIC и другим сервисам.
+   */
+  @Bean
+  public WebClient servicesWebClient(@LoadBalanced WebClient.Builder webClientBuilder,
+      @Qualifier("servicesConnectionProvider") ConnectionProvider servicesConnectionProvider,
+      @Value("${gateway.client.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${gateway.client.response-timeout:5s}") Duration responseTimeout) {
+    HttpClient httpClient = HttpClient.create(servicesConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .keepAlive(true)
+        .responseTimeout(responseTimeout);
+    return webClientBuilder.clone()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+}
@@ -0,0 +1,75 @@
+package ru.baysarov.task_manager_gateway.controller;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.BatchRequest;
+import ru.baysarov.task_manager_gateway.exception.GatewayAuthenticationException;
+import ru.baysarov.task_manager_gateway.service.BatchService;
+import ru.baysarov.task_manager_gateway.service.RequestAuthenticator;
+
+/**
+ * Эндпоинт для выполнения пакета запросов к маршрутам шлюза за одно соединение и одну проверку
+ * токена. Ответы передаются потоком в формате NDJSON по мере готовности; каждый ответ содержит
+ * {@code id} исходного запроса.
+ */
+@RestController
+@RequestMapping("/api/v1/batch")
+@Slf4j
+public class BatchController {
+
+  private final RequestAuthenticator requestAuthenticator;
+  private final BatchService batchService;
+
+  /**
+   * Конструктор для BatchController.
+   *
+   * @param requestAuthenticator компонент аутентификации запросов
+   * @param batchService         сервис выполнения пакета запросов
+   */
+  public BatchController(RequestAuthenticator requestAuthenticator, BatchService batchService) {
+    this.requestAuthenticator = requestAuthenticator;
+    this.batchService = batchService;
+  }
+
+  /**
+   * Выполняет пакет запросов.
+   *
+   * @param batchRequest пакет запросов
+   * @param request      исходный запрос
+   * @return поток ответов в формате NDJSON или ошибка аутентификации/валидации
+   */
+  @PostMapping
+  public Mono<ResponseEntity<?>> executeBatch(@RequestBody BatchRequest batchRequest,
+      ServerHttpRequest request) {
+    if (batchRequest.getRequests() == null || batchRequest.getRequests().isEmpty()) {
+      return Mono.just(ResponseEntity.badRequest()
+          .body(Map.of("error", "Batch must contain at least one request")));
+    }
+    if (batchRequest.getRequests().size() > batchService.getMaxRequests()) {
+      return Mono.just(ResponseEntity.badRequest().body(Map.of("error",
+          "Batch must contain at most " + batchService.getMaxRequests() + " requests")));
+    }
+
+    String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    return requestAuthenticator.authenticate(request)
+        .<ResponseEntity<?>>map(userDto -> {
+          log.info("Executing batch of {} requests for user {}",
+              batchRequest.getRequests().size(), userDto.getEmail());
+          return ResponseEntity.ok()
+              .contentType(MediaType.APPLICATION_NDJSON)
+              .body(batchService.execute(batchRequest.getRequests(), authorization, userDto));
+        })
+        .onErrorResume(GatewayAuthenticationException.class, e -> Mono.just(
+            ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()))));
+  }
+}
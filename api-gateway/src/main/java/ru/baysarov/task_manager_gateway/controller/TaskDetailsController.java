@@ -0,0 +1,68 @@
+package ru.baysarov.task_manager_gateway.controller;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.exception.GatewayAuthenticationException;
+import ru.baysarov.task_manager_gateway.service.RequestAuthenticator;
+import ru.baysarov.task_manager_gateway.service.TaskDetailsService;
+
+/**
+ * Агрегирующий эндпоинт для клиентов: задача вместе с упомянутыми в ней пользователями за один
+ * запрос вместо отдельных запросов задачи и каждого пользователя.
+ * <p>
+ * Обрабатывается самим шлюзом (контроллеры имеют приоритет над маршрутами), поэтому
+ * аутентификация выполняется через {@link RequestAuthenticator}.
+ */
+@RestController
+@RequestMapping("/api/v1/tasks")
+@Slf4j
+public class TaskDetailsController {
+
+  private final RequestAuthenticator requestAuthenticator;
+  private final TaskDetailsService taskDetailsService;
+
+  /**
+   * Конструктор для TaskDetailsController.
+   *
+   * @param requestAuthenticator компонент аутентификации запросов
+   * @param taskDetailsService   сервис агрегации данных о задаче
+   */
+  public TaskDetailsController(RequestAuthenticator requestAuthenticator,
+      TaskDetailsService taskDetailsService) {
+    this.requestAuthenticator = requestAuthenticator;
+    this.taskDetailsService = taskDetailsService;
+  }
+
+  /**
+   * Получает задачу вместе с автором, исполнителем и авторами записей времени.
+   *
+   * @param id      идентификатор задачи
+   * @param request исходный запрос
+   * @return задача и пользователи или ошибка TASK-MANAGEMENT с исходным кодом ответа
+   */
+  @GetMapping("/{id}/details")
+  public Mono<ResponseEntity<?>> getTaskDetails(@PathVariable int id, ServerHttpRequest request) {
+    log.info("Fetching task details with id: {}", id);
+    String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    return requestAuthenticator.authenticate(request)
+        .flatMap(userDto -> taskDetailsService.getTaskDetails(id, authorization, userDto))
+        .<ResponseEntity<?>>map(ResponseEntity::ok)
+        .onErrorResume(GatewayAuthenticationException.class, e -> Mono.just(
+            ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()))))
+        .onErrorResume(WebClientResponseException.class, e -> {
+          log.warn("Task {} request failed with status {}", id, e.getStatusCode());
+          return Mono.just(ResponseEntity.status(e.getStatusCode())
+              .contentType(e.getHeaders().getContentType())
+              .body(e.getResponseBodyAsString()));
+        });
+  }
+}
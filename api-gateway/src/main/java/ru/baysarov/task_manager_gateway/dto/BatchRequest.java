@@ -0,0 +1,19 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Пакет запросов к маршрутам шлюза.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BatchRequest {
+
+  private List<BatchSubRequest> requests;
+}
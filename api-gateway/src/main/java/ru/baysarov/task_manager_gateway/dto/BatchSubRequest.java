@@ -0,0 +1,28 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запрос внутри пакета.
+ * <p>
+ * {@code id} задается клиентом и возвращается в ответе, так как ответы приходят в порядке
+ * готовности. {@code path} указывается так же, как при обычном обращении к шлюзу, например
+ * {@code /api/v1/tasks/5?fields=title}. {@code idempotencyKey} действует так же, как заголовок
+ * {@code Idempotency-Key} при обычном обращении к маршруту с {@code IdempotencyFilter}.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BatchSubRequest {
+
+  private String id;
+  private String method;
+  private String path;
+  private JsonNode body;
+  private String idempotencyKey;
+}
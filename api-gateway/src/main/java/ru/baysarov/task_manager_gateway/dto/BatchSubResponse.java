@@ -0,0 +1,22 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ответ на запрос внутри пакета. Тело JSON-ответа передается как есть, остальные ответы —
+ * строкой.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BatchSubResponse {
+
+  private String id;
+  private int status;
+  private JsonNode body;
+}
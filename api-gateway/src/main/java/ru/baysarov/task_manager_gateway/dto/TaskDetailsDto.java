@@ -0,0 +1,24 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Задача вместе со всеми упомянутыми в ней пользователями.
+ * <p>
+ * {@code task} передается в том виде, в котором его вернул TASK-MANAGEMENT. В {@code users}
+ * собраны автор, исполнитель и авторы записей времени; каждый пользователь встречается один раз.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskDetailsDto {
+
+  private JsonNode task;
+  private Map<Integer, UserSummaryDto> users;
+}
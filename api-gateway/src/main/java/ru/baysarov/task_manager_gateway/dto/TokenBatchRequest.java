@@ -0,0 +1,16 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TokenBatchRequest {
+
+  private List<String> tokens;
+}
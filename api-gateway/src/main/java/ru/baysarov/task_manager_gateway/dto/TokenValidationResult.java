@@ -0,0 +1,17 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TokenValidationResult {
+
+  private boolean valid;
+  private UserDto user;
+  private String error;
+}
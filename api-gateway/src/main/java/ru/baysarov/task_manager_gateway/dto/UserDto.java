@@ -1,6 +1,8 @@
 package ru.baysarov.task_manager_gateway.dto;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,4 +18,16 @@ public class UserDto {
 
   private long id;
   private String email;
-}
\ No newline at end of file
+  private List<String> roles;
+
+  /** Идентификатор токена ({@code jti}), по которому пользователь аутентифицирован. */
+  @JsonIgnore
+  private String tokenId;
+
+  /**
+   * Момент, до которого роли из claims токена считаются актуальными; {@code null}, если роли
+   * получены от Auth-сервиса.
+   */
+  @JsonIgnore
+  private Instant rolesTrustedUntil;
+}
@@ -0,0 +1,19 @@
+package ru.baysarov.task_manager_gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Краткая информация о пользователе в агрегированных ответах шлюза.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UserSummaryDto {
+
+  private int id;
+  private String email;
+}
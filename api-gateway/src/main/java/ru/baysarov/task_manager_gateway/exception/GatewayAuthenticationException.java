@@ -0,0 +1,19 @@
+package ru.baysarov.task_manager_gateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение, возникающее, если запрос к эндпоинту шлюза не прошел аутентификацию (401) или
+ * проверку прав доступа (403).
+ */
+@Getter
+public class GatewayAuthenticationException extends RuntimeException {
+
+  private final HttpStatus status;
+
+  public GatewayAuthenticationException(HttpStatus status, String message) {
+    super(message);
+    this.status = status;
+  }
+}
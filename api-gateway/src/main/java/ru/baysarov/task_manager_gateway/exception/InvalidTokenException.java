@@ -0,0 +1,11 @@
+package ru.baysarov.task_manager_gateway.exception;
+
+/**
+ * Исключение, возникающее при попытке использования недействительного токена.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+  public InvalidTokenException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,12 @@
+package ru.baysarov.task_manager_gateway.exception;
+
+/**
+ * Исключение, возникающее, если очередь пакетной проверки токенов переполнена. Повторять такую
+ * проверку бессмысленно: повтор попадет в ту же очередь.
+ */
+public class TokenBatchQueueFullException extends RuntimeException {
+
+  public TokenBatchQueueFullException(String message) {
+    super(message);
+  }
+}
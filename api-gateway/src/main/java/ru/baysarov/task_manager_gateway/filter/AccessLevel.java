@@ -0,0 +1,13 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+/**
+ * Уровень доступа к маршруту шлюза.
+ */
+public enum AccessLevel {
+  /** Маршрут доступен без токена. */
+  PUBLIC,
+  /** Требуется действительный токен. */
+  AUTHENTICATED,
+  /** Требуется действительный токен и одна из указанных ролей. */
+  ROLE
+}
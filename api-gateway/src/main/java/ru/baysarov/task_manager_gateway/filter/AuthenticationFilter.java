@@ -1,43 +1,66 @@
 package ru.baysarov.task_manager_gateway.filter;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.service.TokenValidationService;
+import ru.baysarov.task_manager_gateway.service.TrustedHeaderSigner;
 
 /**
  * Фильтр аутентификации для проверки токена в заголовке Authorization.
  * <p>
- * Этот фильтр проверяет, присутствует ли токен авторизации в запросе, валидирует его через
- * Auth-сервис и добавляет информацию о пользователе в запрос.
+ * Этот фильтр проверяет, присутствует ли токен авторизации в запросе, валидирует его (локально
+ * или через Auth-сервис) и добавляет информацию о пользователе в запрос в виде подписанных
+ * заголовков {@code X-auth-*} (см. {@link TrustedHeaderSigner}). Для маршрутов с правилом
+ * {@link AccessLevel#ROLE} роли, неизвестные после локальной проверки токена, запрашиваются у
+ * Auth-сервиса; пользователь без известных ролей к таким маршрутам не допускается.
  */
 @Component
 @Slf4j
 public class AuthenticationFilter extends
     AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
+  /**
+   * Атрибут обмена, в который сохраняется проверенный пользователь ({@code UserDto}).
+   */
+  public static final String USER_ATTRIBUTE = AuthenticationFilter.class.getName() + ".user";
 
-  private final WebClient.Builder webClientBuilder;
+  public static final String AUTH_VALIDATION_METRIC = "gateway.auth.validation";
+
+  private final TokenValidationService tokenValidationService;
   private final RouteValidator routeValidator;
+  private final TrustedHeaderSigner trustedHeaderSigner;
+  private final MeterRegistry meterRegistry;
 
   /**
    * Конструктор для AuthenticationFilter.
    *
-   * @param webClientBuilder сборщик WebClient для выполнения запросов к Auth-сервису
-   * @param routeValidator   валидатор маршрутов для определения защищенных маршрутов
+   * @param tokenValidationService сервис проверки токенов
+   * @param routeValidator         валидатор маршрутов для определения защищенных маршрутов
+   * @param trustedHeaderSigner    компонент формирования подписанных заголовков пользователя
+   * @param meterRegistry          реестр метрик для учета времени проверки токена
    */
-  public AuthenticationFilter(WebClient.Builder webClientBuilder, RouteValidator routeValidator) {
+  public AuthenticationFilter(TokenValidationService tokenValidationService,
+      RouteValidator routeValidator, TrustedHeaderSigner trustedHeaderSigner,
+      MeterRegistry meterRegistry) {
     super(Config.class);
-    this.webClientBuilder = webClientBuilder;
+    this.tokenValidationService = tokenValidationService;
     this.routeValidator = routeValidator;
+    this.trustedHeaderSigner = trustedHeaderSigner;
+    this.meterRegistry = meterRegistry;
   }
 
   /**
@@ -51,10 +74,11 @@ public class AuthenticationFilter extends
     return (exchange, chain) -> {
       ServerWebExchange serverWebExchange = exchange;
 
-      if (routeValidator.isSecured.test(serverWebExchange.getRequest())) {
+      RouteRule routeRule = routeValidator.resolve(serverWebExchange.getRequest());
+      if (routeRule.getAccess() != AccessLevel.PUBLIC) {
         if (!serverWebExchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
           log.warn("Authorization header is missing");
-          return handleUnauthorizedResponse(exchange, "Missing authorization information");
+          return handleErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Missing authorization information");
         }
 
         String authHeader = serverWebExchange.getRequest().getHeaders()
@@ -62,48 +86,72 @@ public class AuthenticationFilter extends
         String[] parts = authHeader.split(" ");
 
         if (parts.length != 2 || !"Bearer".equals(parts[0])) {
-          log.warn("Incorrect authorization structure: {}", authHeader);
-          return handleUnauthorizedResponse(exchange, "Incorrect authorization structure");
+          log.warn("Incorrect authorization structure");
+          return handleErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Incorrect authorization structure");
         }
 
         String token = parts[1];
 
-        log.info("Validating token: {}", token);
-        return webClientBuilder.build()
-            .get()
-            .uri("http://AUTH/auth/validateToken?token=" + token)
-            .retrieve()
-            .bodyToMono(UserDto.class)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return tokenValidationService.validate(token, routeRule.getAccess() == AccessLevel.ROLE)
+            .doOnSuccess(userDto -> recordValidation(sample, exchange, "success"))
+            .doOnError(throwable -> recordValidation(sample, exchange, "failure"))
             .flatMap(userDto -> {
               log.info("Token validated successfully for user: {}", userDto.getEmail());
+              if (!routeRule.permits(userDto.getRoles())) {
+                log.warn("Access denied for user {} to {}", userDto.getEmail(),
+                    serverWebExchange.getRequest().getPath());
+                return handleErrorResponse(exchange, HttpStatus.FORBIDDEN, "Access denied");
+              }
+              exchange.getAttributes().put(USER_ATTRIBUTE, userDto);
+              ServerHttpRequest.Builder requestBuilder = serverWebExchange.getRequest().mutate()
+                  .header(HttpHeaders.AUTHORIZATION, authHeader);
+              trustedHeaderSigner.removeClientHeaders(requestBuilder);
+              trustedHeaderSigner.addUserHeaders(requestBuilder, userDto);
               ServerWebExchange mutatedExchange = exchange.mutate()
-                  .request(serverWebExchange.getRequest().mutate()
-                      .header("X-auth-user-email", userDto.getEmail())
-                      .header(HttpHeaders.AUTHORIZATION, authHeader)
-                      .build())
+                  .request(requestBuilder.build())
                   .build();
 
               return chain.filter(mutatedExchange);
             })
             .onErrorResume(throwable -> {
               log.error("Error", throwable.getMessage());
-              return handleUnauthorizedResponse(exchange, "Authenticate error (invalid token or service unavailable)");
+              return handleErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Authenticate error (invalid token or service unavailable)");
             });
       }
 
-      return chain.filter(exchange);
+      ServerHttpRequest.Builder requestBuilder = exchange.getRequest().mutate();
+      trustedHeaderSigner.removeClientHeaders(requestBuilder);
+      return chain.filter(exchange.mutate().request(requestBuilder.build()).build());
     };
   }
 
   /**
-   * Обрабатывает ответ с кодом 401 Unauthorized.
+   * Записывает время проверки токена в таймер {@code gateway.auth.validation}.
+   *
+   * @param sample   начатое измерение
+   * @param exchange объект обмена для текущего запроса
+   * @param outcome  результат проверки
+   */
+  private void recordValidation(Timer.Sample sample, ServerWebExchange exchange, String outcome) {
+    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+    sample.stop(Timer.builder(AUTH_VALIDATION_METRIC)
+        .tag("route", route == null ? "unknown" : route.getId())
+        .tag("outcome", outcome)
+        .register(meterRegistry));
+  }
+
+  /**
+   * Обрабатывает ответ с ошибкой (401 Unauthorized или 403 Forbidden).
    *
    * @param exchange     объект обмена для текущего запроса
+   * @param status       код ответа
    * @param errorMessage сообщение об ошибке
    * @return Mono<Void> для завершения обработки ответа
    */
-  private Mono<Void> handleUnauthorizedResponse(ServerWebExchange exchange, String errorMessage) {
-    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+  private Mono<Void> handleErrorResponse(ServerWebExchange exchange, HttpStatus status,
+      String errorMessage) {
+    exchange.getResponse().setStatusCode(status);
     exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
     String errorResponse = "{\"error\": \"" + errorMessage + "\"}";
     DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
@@ -0,0 +1,199 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import ru.baysarov.task_manager_gateway.limit.AimdConcurrencyLimiter;
+
+/**
+ * Фильтр адаптивного ограничения количества одновременно выполняющихся запросов к маршруту.
+ * <p>
+ * Для каждого маршрута создается собственный {@link AimdConcurrencyLimiter}, поэтому медленный
+ * сервис не занимает ресурсы шлюза, нужные другим маршрутам. Запросы сверх лимита сразу
+ * отклоняются с кодом 503. Текущий лимит, количество выполняющихся и отклоненных запросов
+ * публикуются как метрики {@code gateway.concurrency.*} с тегом {@code route}.
+ * <p>
+ * Лимитер создается при построении маршрута, поэтому запросы внутри пакета
+ * ({@code POST /api/v1/batch}), которые выполняются в обход цепочки фильтров, занимают места в
+ * том же лимите через {@link #tryAcquire(String)} и {@link #release(String, SignalType,
+ * HttpStatusCode, long)}.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends
+    AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentMap<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+  /**
+   * Конструктор для ConcurrencyLimitFilter.
+   *
+   * @param meterRegistry реестр метрик
+   */
+  public ConcurrencyLimitFilter(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Применяет фильтр для обработки запросов.
+   *
+   * @param config конфигурация фильтра
+   * @return GatewayFilter для выполнения в цепочке фильтров
+   */
+  @Override
+  public GatewayFilter apply(Config config) {
+    if (config.getRouteId() != null) {
+      limiters.computeIfAbsent(config.getRouteId(), id -> createLimiter(id, config));
+    }
+    return (exchange, chain) -> {
+      Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+      String routeId = route == null ? "unknown" : route.getId();
+      RouteLimiter routeLimiter = limiters.computeIfAbsent(routeId,
+          id -> createLimiter(id, config));
+
+      if (!tryAcquire(routeId, routeLimiter)) {
+        return handleErrorResponse(exchange);
+      }
+
+      long start = System.nanoTime();
+      return chain.filter(exchange)
+          .doFinally(signal -> release(routeLimiter.limiter(), signal,
+              exchange.getResponse().getStatusCode(), System.nanoTime() - start));
+    };
+  }
+
+  /**
+   * Пытается занять место в лимите маршрута для запроса, выполняемого в обход цепочки фильтров.
+   *
+   * @param routeId идентификатор маршрута
+   * @return {@code true}, если запрос можно выполнять (тогда обязателен вызов
+   *     {@link #release(String, SignalType, HttpStatusCode, long)}) или для маршрута не настроен
+   *     этот фильтр; {@code false}, если лимит достигнут
+   */
+  public boolean tryAcquire(String routeId) {
+    RouteLimiter routeLimiter = limiters.get(routeId);
+    return routeLimiter == null || tryAcquire(routeId, routeLimiter);
+  }
+
+  /**
+   * Освобождает место, занятое через {@link #tryAcquire(String)}, и учитывает результат запроса
+   * в лимите маршрута.
+   *
+   * @param routeId      идентификатор маршрута
+   * @param signal       сигнал завершения запроса
+   * @param status       статус ответа или {@code null}, если ответа нет
+   * @param latencyNanos время выполнения запроса
+   */
+  public void release(String routeId, SignalType signal, HttpStatusCode status,
+      long latencyNanos) {
+    RouteLimiter routeLimiter = limiters.get(routeId);
+    if (routeLimiter != null) {
+      release(routeLimiter.limiter(), signal, status, latencyNanos);
+    }
+  }
+
+  private boolean tryAcquire(String routeId, RouteLimiter routeLimiter) {
+    AimdConcurrencyLimiter limiter = routeLimiter.limiter();
+    if (!limiter.tryAcquire()) {
+      routeLimiter.rejected().increment();
+      log.warn("Concurrency limit {} reached for route {}", limiter.getLimit(), routeId);
+      return false;
+    }
+    return true;
+  }
+
+  private void release(AimdConcurrencyLimiter limiter, SignalType signal, HttpStatusCode status,
+      long latencyNanos) {
+    if (signal == SignalType.CANCEL) {
+      limiter.onIgnore();
+      return;
+    }
+    if (signal == SignalType.ON_ERROR || status != null && status.is5xxServerError()) {
+      limiter.onDropped();
+    } else {
+      limiter.onSuccess(latencyNanos);
+    }
+  }
+
+  private RouteLimiter createLimiter(String routeId, Config config) {
+    AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(config.getInitialLimit(),
+        config.getMinLimit(), config.getMaxLimit(), config.getLatencyThreshold().toNanos(),
+        config.getBackoffRatio());
+    Gauge.builder("gateway.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Gauge.builder("gateway.concurrency.in_flight", limiter, AimdConcurrencyLimiter::getInFlight)
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Counter rejected = Counter.builder("gateway.concurrency.rejected")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    return new RouteLimiter(limiter, rejected);
+  }
+
+  /**
+   * Отвечает кодом 503 Service Unavailable.
+   *
+   * @param exchange объект обмена для текущего запроса
+   * @return Mono<Void> для завершения обработки ответа
+   */
+  private Mono<Void> handleErrorResponse(ServerWebExchange exchange) {
+    exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    String errorResponse = "{\"error\": \"Service is overloaded, try again later\"}";
+    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+    return exchange.getResponse().writeWith(Mono.just(buffer));
+  }
+
+  private record RouteLimiter(AimdConcurrencyLimiter limiter, Counter rejected) {
+
+  }
+
+  /**
+   * Конфигурация для ConcurrencyLimitFilter.
+   */
+  @Getter
+  @Setter
+  public static class Config implements HasRouteId {
+
+    /** Идентификатор маршрута, заполняется шлюзом при построении маршрута. */
+    private String routeId;
+
+    /** Начальный лимит одновременно выполняющихся запросов. */
+    private int initialLimit = 20;
+
+    /** Минимальный лимит. */
+    private int minLimit = 1;
+
+    /** Максимальный лимит. */
+    private int maxLimit = 200;
+
+    /** Задержка ответа, после которой лимит уменьшается. */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /** Множитель уменьшения лимита. */
+    private double backoffRatio = 0.9;
+  }
+}
@@ -0,0 +1,278 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.idempotency.CachedResponse;
+import ru.baysarov.task_manager_gateway.idempotency.CapturingResponseDecorator;
+import ru.baysarov.task_manager_gateway.idempotency.IdempotencyRecord;
+
+/**
+ * Фильтр обработки заголовка {@code Idempotency-Key} для изменяющих запросов.
+ * <p>
+ * Ключ действует в пределах токена из заголовка {@code Authorization}, метода и пути запроса.
+ * Первый запрос с ключом выполняется, а его ответ сохраняется в ограниченном по объему
+ * хранилище в памяти. Повторный запрос с тем же ключом получает сохраненный ответ с заголовком
+ * {@code Idempotent-Replayed}; если первый запрос еще выполняется, повторный ждет его ответа, а не
+ * отправляет второй запрос в сервис. Ответы 5xx, ответы 401 и 429, которыми шлюз отклоняет
+ * запрос до сервиса, и ответы, завершившиеся ошибкой, не сохраняются, поэтому такой запрос можно
+ * повторить.
+ * <p>
+ * Фильтр выполняется непосредственно перед {@link NettyWriteResponseFilter}, независимо от
+ * позиции в списке фильтров маршрута, и сохраняет ответ после того, как тело записано клиенту.
+ * Поэтому он выполняется раньше {@link AuthenticationFilter}, и ключ хранилища строится по
+ * хешу токена, а не по аутентифицированному пользователю: сохраненный ответ получает только
+ * клиент с тем же токеном.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends AbstractGatewayFilterFactory<IdempotencyFilter.Config> {
+
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private final Cache<String, IdempotencyRecord> records;
+  private final ConcurrentMap<String, IdempotencyRecord> recordsMap;
+  private final int maxBodySize;
+  private final Duration waitTimeout;
+  private final Counter replayedCounter;
+
+  /**
+   * Конструктор для IdempotencyFilter.
+   *
+   * @param ttl           время хранения ответа
+   * @param maximumWeight максимальный суммарный размер сохраненных ответов в байтах
+   * @param maxBodySize   максимальный размер сохраняемого ответа в байтах
+   * @param waitTimeout   максимальное время ожидания ответа на выполняющийся запрос с тем же
+   *                      ключом
+   * @param meterRegistry реестр метрик
+   */
+  public IdempotencyFilter(@Value("${gateway.idempotency.ttl:1h}") Duration ttl,
+      @Value("${gateway.idempotency.maximum-weight:67108864}") long maximumWeight,
+      @Value("${gateway.idempotency.max-body-size:262144}") int maxBodySize,
+      @Value("${gateway.idempotency.wait-timeout:10s}") Duration waitTimeout,
+      MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.maxBodySize = maxBodySize;
+    this.waitTimeout = waitTimeout;
+    this.records = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumWeight(maximumWeight)
+        .weigher((String key, IdempotencyRecord record) -> record.weight())
+        .recordStats()
+        .build();
+    this.recordsMap = records.asMap();
+    CaffeineCacheMetrics.monitor(meterRegistry, records, "idempotency");
+    this.replayedCounter = Counter.builder("gateway.idempotency.replayed")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Применяет фильтр для обработки запросов.
+   *
+   * @param config конфигурация фильтра
+   * @return GatewayFilter для выполнения в цепочке фильтров
+   */
+  @Override
+  public GatewayFilter apply(Config config) {
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      ServerHttpRequest request = exchange.getRequest();
+      String idempotencyKey = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+      if (idempotencyKey == null || idempotencyKey.isBlank()
+          || !isWriteMethod(request.getMethod())) {
+        return chain.filter(exchange);
+      }
+      return filter(exchange, chain, storageKey(request, idempotencyKey));
+    }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+  }
+
+  private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+    IdempotencyRecord pending = IdempotencyRecord.pending();
+    IdempotencyRecord existing = recordsMap.putIfAbsent(key, pending);
+    if (existing != null) {
+      return replay(exchange, chain, key, existing);
+    }
+
+    CapturingResponseDecorator response = new CapturingResponseDecorator(
+        exchange.getResponse(), maxBodySize, written -> store(key, pending, written));
+    // После записи ответа abandon ничего не меняет; иначе ответа не будет, и ожидающие
+    // повторы выполнят запрос сами.
+    return chain.filter(exchange.mutate().response(response).build())
+        .doFinally(signal -> abandon(key, pending));
+  }
+
+  /**
+   * Выполняет запрос с ключом идемпотентности через то же хранилище, что и фильтр маршрута.
+   * Используется для запросов, которые шлюз отправляет сам, например запросов пакета: повтор с
+   * тем же токеном, методом, путем и ключом получает сохраненный ответ, в том числе ответ на
+   * запрос, выполненный напрямую через маршрут. Запросы, не изменяющие данные, выполняются без
+   * проверки ключа.
+   *
+   * @param authorization  значение заголовка Authorization
+   * @param method         метод запроса
+   * @param path           путь запроса без строки параметров
+   * @param idempotencyKey ключ идемпотентности
+   * @param call           выполнение запроса
+   * @return ответ на запрос или сохраненный ответ на первый запрос с тем же ключом; ошибка
+   * {@link TimeoutException}, если первый запрос выполняется дольше
+   * {@code gateway.idempotency.wait-timeout}
+   */
+  public Mono<CachedResponse> execute(String authorization, HttpMethod method, String path,
+      String idempotencyKey, Supplier<Mono<CachedResponse>> call) {
+    if (!isWriteMethod(method)) {
+      return call.get();
+    }
+    return execute(storageKey(authorization, method, path, idempotencyKey), call);
+  }
+
+  private Mono<CachedResponse> execute(String key, Supplier<Mono<CachedResponse>> call) {
+    IdempotencyRecord pending = IdempotencyRecord.pending();
+    IdempotencyRecord existing = recordsMap.putIfAbsent(key, pending);
+    if (existing != null) {
+      return existing.result()
+          .map(Optional::of)
+          .defaultIfEmpty(Optional.empty())
+          .timeout(waitTimeout)
+          .flatMap(cachedResponse -> cachedResponse
+              .map(value -> {
+                replayedCounter.increment();
+                return Mono.just(value);
+              })
+              .orElseGet(() -> execute(key, call)));
+    }
+    return Mono.defer(call)
+        .doOnNext(response -> store(key, pending, response, response.body().length > maxBodySize))
+        .doFinally(signal -> abandon(key, pending));
+  }
+
+  /**
+   * Отправляет сохраненный ответ. Если первый запрос не дал ответа, который можно сохранить,
+   * запрос выполняется заново.
+   */
+  private Mono<Void> replay(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+      IdempotencyRecord existing) {
+    return existing.result()
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .timeout(waitTimeout)
+        .flatMap(cachedResponse -> cachedResponse
+            .map(value -> writeCachedResponse(exchange, value))
+            .orElseGet(() -> filter(exchange, chain, key)))
+        .onErrorResume(TimeoutException.class, e -> {
+          log.warn("Request with idempotency key {} is still in progress", key);
+          return handleErrorResponse(exchange);
+        });
+  }
+
+  private void store(String key, IdempotencyRecord pending,
+      CapturingResponseDecorator response) {
+    HttpStatusCode status = response.getStatusCode();
+    CachedResponse cachedResponse = new CachedResponse(status == null ? 200 : status.value(),
+        response.getHeaders().getContentType(), response.getBody());
+    store(key, pending, cachedResponse, response.isTooLarge());
+  }
+
+  private void store(String key, IdempotencyRecord pending, CachedResponse cachedResponse,
+      boolean tooLarge) {
+    int status = cachedResponse.status();
+    if (status >= 500 || status == HttpStatus.UNAUTHORIZED.value()
+        || status == HttpStatus.TOO_MANY_REQUESTS.value() || tooLarge) {
+      abandon(key, pending);
+      return;
+    }
+    recordsMap.replace(key, pending, IdempotencyRecord.completed(cachedResponse));
+    pending.complete(cachedResponse);
+  }
+
+  private void abandon(String key, IdempotencyRecord pending) {
+    recordsMap.remove(key, pending);
+    pending.abandon();
+  }
+
+  private Mono<Void> writeCachedResponse(ServerWebExchange exchange,
+      CachedResponse cachedResponse) {
+    replayedCounter.increment();
+    exchange.getResponse().setStatusCode(HttpStatusCode.valueOf(cachedResponse.status()));
+    exchange.getResponse().getHeaders().set(REPLAYED_HEADER, "true");
+    if (cachedResponse.contentType() != null) {
+      exchange.getResponse().getHeaders().setContentType(cachedResponse.contentType());
+    }
+    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(cachedResponse.body());
+    return exchange.getResponse().writeWith(Mono.just(buffer));
+  }
+
+  private static boolean isWriteMethod(HttpMethod method) {
+    return HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+        || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method);
+  }
+
+  private static String storageKey(ServerHttpRequest request, String idempotencyKey) {
+    return storageKey(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION),
+        request.getMethod(), request.getPath().value(), idempotencyKey);
+  }
+
+  private static String storageKey(String authorization, HttpMethod method, String path,
+      String idempotencyKey) {
+    return (authorization == null ? "" : hash(authorization)) + '\n' + method + '\n' + path
+        + '\n' + idempotencyKey;
+  }
+
+  private static String hash(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(value.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  /**
+   * Отвечает кодом 409 Conflict, если запрос с тем же ключом выполняется слишком долго.
+   *
+   * @param exchange объект обмена для текущего запроса
+   * @return Mono<Void> для завершения обработки ответа
+   */
+  private Mono<Void> handleErrorResponse(ServerWebExchange exchange) {
+    exchange.getResponse().setStatusCode(HttpStatus.CONFLICT);
+    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    String errorResponse = "{\"error\": \"Request with this Idempotency-Key is in progress\"}";
+    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+    return exchange.getResponse().writeWith(Mono.just(buffer));
+  }
+
+  /**
+   * Конфигурация для IdempotencyFilter. Параметры задаются в {@code gateway.idempotency}.
+   */
+  public static class Config {
+
+  }
+}
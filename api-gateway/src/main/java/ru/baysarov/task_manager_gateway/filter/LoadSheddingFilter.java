@@ -0,0 +1,134 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.limit.LoadShedder;
+import ru.baysarov.task_manager_gateway.limit.RequestPriority;
+
+/**
+ * Глобальный фильтр сброса нагрузки по приоритету маршрута.
+ * <p>
+ * Приоритет берется из метаданных маршрута ({@code metadata.priority}). Когда общее число
+ * выполняющихся запросов превышает {@code gateway.load-shedding.low-priority-threshold}, запросы
+ * маршрутов с приоритетом {@code LOW} ждут в очереди, а при ее переполнении или истечении времени
+ * ожидания отклоняются с кодом 503 (см. {@link LoadShedder}). Интерактивные маршруты не
+ * задерживаются.
+ */
+@Component
+@Slf4j
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+  private final boolean enabled;
+  private final LoadShedder loadShedder;
+  private final Counter shedCounter;
+
+  /**
+   * Конструктор для LoadSheddingFilter.
+   *
+   * @param enabled              признак включения сброса нагрузки
+   * @param lowPriorityThreshold количество выполняющихся запросов, начиная с которого запросы
+   *                             низкого приоритета ждут в очереди
+   * @param queueSize            максимальная длина очереди
+   * @param queueTimeout         максимальное время ожидания в очереди
+   * @param meterRegistry        реестр метрик
+   */
+  public LoadSheddingFilter(@Value("${gateway.load-shedding.enabled:true}") boolean enabled,
+      @Value("${gateway.load-shedding.low-priority-threshold:200}") int lowPriorityThreshold,
+      @Value("${gateway.load-shedding.queue-size:100}") int queueSize,
+      @Value("${gateway.load-shedding.queue-timeout:2s}") Duration queueTimeout,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.loadShedder = new LoadShedder(lowPriorityThreshold, queueSize, queueTimeout);
+    Gauge.builder("gateway.load_shedding.in_flight", loadShedder, LoadShedder::getInFlight)
+        .register(meterRegistry);
+    Gauge.builder("gateway.load_shedding.queued", loadShedder, LoadShedder::getQueued)
+        .register(meterRegistry);
+    this.shedCounter = Counter.builder("gateway.load_shedding.shed")
+        .tag("priority", RequestPriority.LOW.name())
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    if (!enabled) {
+      return chain.filter(exchange);
+    }
+    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+    RequestPriority priority = route == null
+        ? RequestPriority.NORMAL : RequestPriority.from(route.getMetadata().get("priority"));
+
+    return acquire(priority, exchange.getRequest().getPath().value())
+        .flatMap(admitted -> {
+          if (!admitted) {
+            return handleErrorResponse(exchange);
+          }
+          return chain.filter(exchange).doFinally(signal -> release());
+        });
+  }
+
+  /**
+   * Пытается начать выполнение запроса. Используется также для запросов внутри пакета
+   * ({@code POST /api/v1/batch}), которые выполняются в обход цепочки фильтров.
+   *
+   * @param priority приоритет маршрута
+   * @param path     путь запроса для журнала
+   * @return Mono с {@code true}, если запрос можно выполнять (тогда обязателен вызов
+   *     {@link #release()}), или {@code false}, если запрос нужно отклонить
+   */
+  public Mono<Boolean> acquire(RequestPriority priority, String path) {
+    if (!enabled) {
+      return Mono.just(true);
+    }
+    return loadShedder.acquire(priority)
+        .doOnNext(admitted -> {
+          if (!admitted) {
+            shedCounter.increment();
+            log.warn("Low priority request {} shed under load", path);
+          }
+        });
+  }
+
+  /**
+   * Завершает выполнение запроса, начатого через {@link #acquire(RequestPriority, String)}.
+   */
+  public void release() {
+    if (enabled) {
+      loadShedder.release();
+    }
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE + 100;
+  }
+
+  /**
+   * Отвечает кодом 503 Service Unavailable.
+   *
+   * @param exchange объект обмена для текущего запроса
+   * @return Mono<Void> для завершения обработки ответа
+   */
+  private Mono<Void> handleErrorResponse(ServerWebExchange exchange) {
+    exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    String errorResponse = "{\"error\": \"Gateway is overloaded, try again later\"}";
+    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+    return exchange.getResponse().writeWith(Mono.just(buffer));
+  }
+}
@@ -0,0 +1,115 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Глобальный фильтр, измеряющий полное время обработки запроса шлюзом.
+ * <p>
+ * Время записывается в таймер {@code gateway.route.latency} с тегами {@code route},
+ * {@code status_class} (2xx, 4xx, 5xx, а также CANCELLED и ERROR) и {@code instance} (адрес
+ * экземпляра, выбранного балансировщиком). Время проверки токена записывается отдельно в
+ * {@code gateway.auth.validation} (см. {@link AuthenticationFilter}). Перцентили, гистограммы и
+ * SLO задаются в {@code management.metrics.distribution}.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+  public static final String ROUTE_LATENCY_METRIC = "gateway.route.latency";
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Конструктор для RouteMetricsFilter.
+   *
+   * @param meterRegistry реестр метрик
+   */
+  public RouteMetricsFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    return chain.filter(exchange)
+        .doFinally(signal -> record(sample, routeId(exchange),
+            statusClass(exchange.getResponse().getStatusCode(), signal), instance(exchange)));
+  }
+
+  /**
+   * Начинает измерение запроса, выполняемого в обход цепочки фильтров (запрос внутри пакета
+   * {@code POST /api/v1/batch}).
+   *
+   * @return начатое измерение
+   */
+  public Timer.Sample start() {
+    return Timer.start(meterRegistry);
+  }
+
+  /**
+   * Записывает время запроса, начатого через {@link #start()}. Экземпляр сервиса для таких
+   * запросов неизвестен и записывается как {@code none}.
+   *
+   * @param sample  начатое измерение
+   * @param routeId идентификатор маршрута
+   * @param status  статус ответа или {@code null}, если ответа нет
+   * @param signal  сигнал завершения запроса
+   */
+  public void stop(Timer.Sample sample, String routeId, HttpStatusCode status,
+      SignalType signal) {
+    record(sample, routeId, statusClass(status, signal), "none");
+  }
+
+  private void record(Timer.Sample sample, String routeId, String statusClass, String instance) {
+    sample.stop(Timer.builder(ROUTE_LATENCY_METRIC)
+        .tag("route", routeId)
+        .tag("status_class", statusClass)
+        .tag("instance", instance)
+        .register(meterRegistry));
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  private static String routeId(ServerWebExchange exchange) {
+    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+    return route == null ? "unknown" : route.getId();
+  }
+
+  private static String statusClass(HttpStatusCode status, SignalType signal) {
+    if (signal == SignalType.CANCEL) {
+      return "CANCELLED";
+    }
+    if (status == null) {
+      return signal == SignalType.ON_ERROR ? "ERROR" : "UNKNOWN";
+    }
+    return (status.value() / 100) + "xx";
+  }
+
+  /**
+   * Возвращает адрес экземпляра сервиса, на который был отправлен запрос. Если запрос не дошел
+   * до балансировщика (например, отклонен при проверке токена), возвращает {@code none}.
+   */
+  private static String instance(ServerWebExchange exchange) {
+    URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+    if (requestUrl == null || requestUrl.getHost() == null || "lb".equals(requestUrl.getScheme())) {
+      return "none";
+    }
+    return requestUrl.getHost() + ":" + requestUrl.getPort();
+  }
+}
@@ -0,0 +1,42 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Правило доступа, примененное к запросу.
+ */
+@Getter
+public class RouteRule {
+
+  private final AccessLevel access;
+  private final Set<String> roles;
+
+  public RouteRule(AccessLevel access, Set<String> roles) {
+    this.access = access;
+    this.roles = roles;
+  }
+
+  /**
+   * Проверяет, разрешает ли правило доступ пользователю с указанными ролями.
+   *
+   * @param userRoles роли пользователя или {@code null}, если роли неизвестны
+   * @return true, если доступ разрешен; для правила {@link AccessLevel#ROLE} с неизвестными ролями
+   *     доступ запрещается
+   */
+  public boolean permits(List<String> userRoles) {
+    if (access != AccessLevel.ROLE) {
+      return true;
+    }
+    if (userRoles == null) {
+      return false;
+    }
+    for (String role : userRoles) {
+      if (roles.contains(role)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
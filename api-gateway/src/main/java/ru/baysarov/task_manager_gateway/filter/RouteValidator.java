@@ -1,21 +1,140 @@
 package ru.baysarov.task_manager_gateway.filter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.PathContainer.Element;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.baysarov.task_manager_gateway.config.RouteSecurityProperties;
 
+/**
+ * Определяет правило доступа для запроса по таблице правил {@code gateway.security.rules}.
+ * <p>
+ * Шаблоны разбираются один раз при создании компонента и раскладываются по префиксному дереву
+ * литеральных сегментов пути (например, {@code /api/v1/tasks/**} хранится в узле
+ * {@code api -> v1 -> tasks}). Для запроса проверяются только правила из узлов, лежащих на его
+ * пути, поэтому стоимость проверки почти не зависит от размера таблицы.
+ */
 @Component
 public class RouteValidator {
 
-  public static final List<String> openApiEndpoints = List.of(
-      "/auth/register",
-      "/auth/token",
-      "/eureka"
-  );
+  private final Node root = new Node();
+  private final RouteRule defaultRule;
 
   public Predicate<ServerHttpRequest> isSecured =
-      serverHttpRequest -> openApiEndpoints
-          .stream()
-          .noneMatch(uri -> serverHttpRequest.getURI().getPath().contains(uri));
+      serverHttpRequest -> resolve(serverHttpRequest).getAccess() != AccessLevel.PUBLIC;
+
+  /**
+   * Конструктор для RouteValidator.
+   *
+   * @param properties настройки доступа к маршрутам
+   */
+  public RouteValidator(RouteSecurityProperties properties) {
+    this.defaultRule = new RouteRule(properties.getDefaultAccess(), Set.of());
+
+    PathPatternParser parser = PathPatternParser.defaultInstance;
+    List<RouteSecurityProperties.Rule> rules = properties.getRules();
+    for (int order = 0; order < rules.size(); order++) {
+      RouteSecurityProperties.Rule rule = rules.get(order);
+      CompiledRule compiledRule = new CompiledRule(order, parser.parse(rule.getPattern()),
+          new RouteRule(rule.getAccess(), Set.copyOf(rule.getRoles())));
+
+      Node node = root;
+      for (String segment : literalPrefix(rule.getPattern())) {
+        node = node.children.computeIfAbsent(segment, key -> new Node());
+      }
+      node.rules.add(compiledRule);
+    }
+  }
+
+  /**
+   * Возвращает правило доступа для запроса.
+   *
+   * @param request запрос
+   * @return первое подходящее правило или правило по умолчанию
+   */
+  public RouteRule resolve(ServerHttpRequest request) {
+    return resolve(request.getPath().pathWithinApplication());
+  }
+
+  /**
+   * Возвращает правило доступа для пути.
+   *
+   * @param path разобранный путь запроса
+   * @return первое подходящее правило или правило по умолчанию
+   */
+  public RouteRule resolve(PathContainer path) {
+    CompiledRule match = firstMatch(root, path, null);
+
+    Node node = root;
+    for (Element element : path.elements()) {
+      if (!(element instanceof PathContainer.PathSegment segment)) {
+        continue;
+      }
+      node = node.children.get(segment.valueToMatch());
+      if (node == null) {
+        break;
+      }
+      match = firstMatch(node, path, match);
+    }
+
+    return match == null ? defaultRule : match.rule();
+  }
+
+  /**
+   * Ищет в узле первое подходящее правило, объявленное раньше текущего найденного.
+   *
+   * @param node  узел дерева
+   * @param path  путь запроса
+   * @param match найденное ранее правило или {@code null}
+   * @return правило с наименьшим порядковым номером среди подходящих
+   */
+  private static CompiledRule firstMatch(Node node, PathContainer path, CompiledRule match) {
+    for (CompiledRule candidate : node.rules) {
+      if (match != null && candidate.order() > match.order()) {
+        break;
+      }
+      if (candidate.pattern().matches(path)) {
+        return candidate;
+      }
+    }
+    return match;
+  }
+
+  /**
+   * Возвращает литеральные сегменты шаблона до первого сегмента с переменной или маской.
+   *
+   * @param pattern шаблон пути
+   * @return список литеральных сегментов
+   */
+  private static List<String> literalPrefix(String pattern) {
+    List<String> prefix = new ArrayList<>();
+    for (String segment : pattern.split("/")) {
+      if (segment.isEmpty()) {
+        continue;
+      }
+      if (segment.contains("*") || segment.contains("{") || segment.contains("?")) {
+        break;
+      }
+      prefix.add(segment);
+    }
+    return prefix;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private final List<CompiledRule> rules = new ArrayList<>();
+  }
+
+  private record CompiledRule(int order, PathPattern pattern, RouteRule rule) {
+
+  }
 }
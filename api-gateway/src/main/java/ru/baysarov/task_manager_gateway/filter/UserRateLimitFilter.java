@@ -0,0 +1,172 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.config.RateLimitProperties;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.limit.UserRateLimiter;
+import ru.baysarov.task_manager_gateway.limit.UserRateLimiter.Bandwidth;
+
+/**
+ * Фильтр ограничения частоты запросов пользователя.
+ * <p>
+ * Должен стоять в списке фильтров маршрута после {@link AuthenticationFilter}: ключом служит email
+ * пользователя, определенный при проверке токена. Запросы без пользователя (публичные маршруты)
+ * не ограничиваются. Счетчики хранятся в памяти шлюза (см. {@link UserRateLimiter}), внешнее
+ * хранилище не требуется. При превышении лимита возвращается 429 с заголовком
+ * {@code Retry-After}.
+ */
+@Component
+@Slf4j
+public class UserRateLimitFilter extends
+    AbstractGatewayFilterFactory<UserRateLimitFilter.Config> {
+
+  private final RateLimitProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentMap<String, RouteRateLimit> routeLimits = new ConcurrentHashMap<>();
+
+  /**
+   * Конструктор для UserRateLimitFilter.
+   *
+   * @param properties    настройки ограничения частоты запросов
+   * @param meterRegistry реестр метрик
+   */
+  public UserRateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Применяет фильтр для обработки запросов.
+   *
+   * @param config конфигурация фильтра
+   * @return GatewayFilter для выполнения в цепочке фильтров
+   */
+  @Override
+  public GatewayFilter apply(Config config) {
+    return (exchange, chain) -> {
+      UserDto userDto = exchange.getAttribute(AuthenticationFilter.USER_ATTRIBUTE);
+      if (!properties.isEnabled() || userDto == null) {
+        return chain.filter(exchange);
+      }
+
+      Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+      String routeId = route == null ? "unknown" : route.getId();
+
+      long waitNanos = tryAcquire(routeId, userDto);
+      if (waitNanos > 0) {
+        return handleErrorResponse(exchange, waitNanos);
+      }
+      return chain.filter(exchange);
+    };
+  }
+
+  /**
+   * Учитывает запрос пользователя в лимите маршрута. Используется также для запросов внутри
+   * пакета ({@code POST /api/v1/batch}), которые выполняются в обход цепочки фильтров.
+   *
+   * @param routeId идентификатор маршрута
+   * @param userDto аутентифицированный пользователь
+   * @return 0, если запрос разрешен, иначе время в наносекундах до следующего разрешенного
+   *     запроса
+   */
+  public long tryAcquire(String routeId, UserDto userDto) {
+    if (!properties.isEnabled()) {
+      return 0;
+    }
+    RouteRateLimit routeLimit = routeLimits.computeIfAbsent(routeId, this::createRouteLimit);
+    long waitNanos = routeLimit.limiter()
+        .tryAcquire(userDto.getEmail(), routeLimit.bandwidthFor(userDto.getRoles()));
+    if (waitNanos > 0) {
+      routeLimit.rejected().increment();
+      log.warn("Rate limit exceeded for user {} on route {}", userDto.getEmail(), routeId);
+    }
+    return waitNanos;
+  }
+
+  private RouteRateLimit createRouteLimit(String routeId) {
+    RateLimitProperties.RouteLimits limits = properties.getRoutes().get(routeId);
+    RateLimitProperties.Limit routeLimit = limits == null || limits.getLimit() == null
+        ? properties.getDefaultLimit() : limits.getLimit();
+
+    Map<String, Bandwidth> roleBandwidths = new HashMap<>();
+    if (limits != null) {
+      limits.getRoles().forEach((role, limit) ->
+          roleBandwidths.put(role, Bandwidth.of(limit.getRate(), limit.getBurst())));
+    }
+
+    Counter rejected = Counter.builder("gateway.rate_limit.rejected")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    return new RouteRateLimit(
+        new UserRateLimiter(properties.getIdleTimeout(), properties.getMaximumKeys()),
+        Bandwidth.of(routeLimit.getRate(), routeLimit.getBurst()),
+        Map.copyOf(roleBandwidths), rejected);
+  }
+
+  /**
+   * Отвечает кодом 429 Too Many Requests.
+   *
+   * @param exchange  объект обмена для текущего запроса
+   * @param waitNanos время до следующего разрешенного запроса
+   * @return Mono<Void> для завершения обработки ответа
+   */
+  private Mono<Void> handleErrorResponse(ServerWebExchange exchange, long waitNanos) {
+    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+        String.valueOf(retryAfterSeconds));
+    String errorResponse = "{\"error\": \"Too many requests\"}";
+    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
+    return exchange.getResponse().writeWith(Mono.just(buffer));
+  }
+
+  private record RouteRateLimit(UserRateLimiter limiter, Bandwidth defaultBandwidth,
+                                Map<String, Bandwidth> roleBandwidths, Counter rejected) {
+
+    /**
+     * Выбирает наибольший из лимитов ролей пользователя или лимит маршрута.
+     */
+    Bandwidth bandwidthFor(List<String> roles) {
+      Bandwidth result = null;
+      if (roles != null && !roleBandwidths.isEmpty()) {
+        for (String role : roles) {
+          Bandwidth bandwidth = roleBandwidths.get(role);
+          if (bandwidth != null
+              && (result == null || bandwidth.intervalNanos() < result.intervalNanos())) {
+            result = bandwidth;
+          }
+        }
+      }
+      return result == null ? defaultBandwidth : result;
+    }
+  }
+
+  /**
+   * Конфигурация для UserRateLimitFilter. Лимиты задаются в {@code gateway.rate-limit}.
+   */
+  public static class Config {
+
+  }
+}
@@ -0,0 +1,14 @@
+package ru.baysarov.task_manager_gateway.idempotency;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Сохраненный ответ на запрос с ключом идемпотентности.
+ *
+ * @param status      код ответа
+ * @param contentType тип содержимого или {@code null}
+ * @param body        тело ответа
+ */
+public record CachedResponse(int status, MediaType contentType, byte[] body) {
+
+}
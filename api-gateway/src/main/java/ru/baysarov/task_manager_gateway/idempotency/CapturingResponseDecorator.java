@@ -0,0 +1,117 @@
+package ru.baysarov.task_manager_gateway.idempotency;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ответ, тело которого одновременно передается клиенту и сохраняется для повторной отправки.
+ * <p>
+ * Тело передается клиенту по частям, без накопления в памяти; параллельно части копируются в
+ * буфер. Как только сохраненная часть превышает {@code maxBodySize}, буфер освобождается и
+ * дальнейшие части не сохраняются, поэтому на один ответ хранится не больше
+ * {@code maxBodySize} байт.
+ * <p>
+ * После того как тело полностью записано клиенту (или ответ завершен без тела), вызывается
+ * {@code onWritten}: в шлюзе тело записывает {@code NettyWriteResponseFilter} уже после
+ * завершения остальной цепочки фильтров, поэтому готовность ответа определяется по записи, а не
+ * по завершению цепочки.
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+  private final int maxBodySize;
+  private final Consumer<CapturingResponseDecorator> onWritten;
+  private volatile byte[] body = new byte[0];
+  private volatile boolean tooLarge;
+
+  /**
+   * Конструктор для CapturingResponseDecorator.
+   *
+   * @param delegate    исходный ответ
+   * @param maxBodySize максимальный размер сохраняемого тела в байтах
+   * @param onWritten   действие после успешной записи ответа, получает этот ответ
+   */
+  public CapturingResponseDecorator(ServerHttpResponse delegate, int maxBodySize,
+      Consumer<CapturingResponseDecorator> onWritten) {
+    super(delegate);
+    this.maxBodySize = maxBodySize;
+    this.onWritten = onWritten;
+  }
+
+  @Override
+  public Mono<Void> writeWith(Publisher<? extends DataBuffer> bodyPublisher) {
+    return Mono.defer(() -> {
+      Capture capture = new Capture();
+      return super.writeWith(Flux.from(bodyPublisher).doOnNext(capture::append))
+          .doOnSuccess(ignored -> {
+            capture.finish();
+            onWritten.accept(this);
+          });
+    });
+  }
+
+  @Override
+  public Mono<Void> setComplete() {
+    return super.setComplete().doOnSuccess(ignored -> onWritten.accept(this));
+  }
+
+  @Override
+  public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+    return writeWith(Flux.from(body).concatMap(Flux::from));
+  }
+
+  /**
+   * Возвращает сохраненное тело ответа.
+   *
+   * @return тело ответа
+   */
+  public byte[] getBody() {
+    return body;
+  }
+
+  /**
+   * Проверяет, превысило ли тело ответа допустимый размер.
+   *
+   * @return {@code true}, если тело не сохранено из-за размера
+   */
+  public boolean isTooLarge() {
+    return tooLarge;
+  }
+
+  /**
+   * Копия тела одной записи ответа. Части приходят последовательно, поэтому синхронизация не
+   * нужна.
+   */
+  private final class Capture {
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private void append(DataBuffer dataBuffer) {
+      if (buffer == null) {
+        return;
+      }
+      int length = dataBuffer.readableByteCount();
+      if (buffer.size() + length > maxBodySize) {
+        buffer = null;
+        tooLarge = true;
+        return;
+      }
+      byte[] chunk = new byte[length];
+      int position = dataBuffer.readPosition();
+      dataBuffer.read(chunk);
+      dataBuffer.readPosition(position);
+      buffer.writeBytes(chunk);
+    }
+
+    private void finish() {
+      if (buffer != null) {
+        body = buffer.toByteArray();
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package ru.baysarov.task_manager_gateway.idempotency;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Запись хранилища ключей идемпотентности: либо выполняющийся запрос, либо сохраненный ответ.
+ * <p>
+ * Повторные запросы с тем же ключом подписываются на {@link #result()} и получают ответ первого
+ * запроса. Если первый запрос не дал ответа, который можно сохранить, {@link #result()} завершается
+ * без значения.
+ */
+public final class IdempotencyRecord {
+
+  private final Sinks.One<CachedResponse> sink;
+  private final CachedResponse response;
+
+  private IdempotencyRecord(Sinks.One<CachedResponse> sink, CachedResponse response) {
+    this.sink = sink;
+    this.response = response;
+  }
+
+  /**
+   * Создает запись для запроса, который начинает выполняться.
+   *
+   * @return запись выполняющегося запроса
+   */
+  public static IdempotencyRecord pending() {
+    return new IdempotencyRecord(Sinks.one(), null);
+  }
+
+  /**
+   * Создает запись с сохраненным ответом.
+   *
+   * @param response ответ
+   * @return запись завершенного запроса
+   */
+  public static IdempotencyRecord completed(CachedResponse response) {
+    return new IdempotencyRecord(null, response);
+  }
+
+  /**
+   * Возвращает ответ первого запроса.
+   *
+   * @return Mono с ответом или пустой Mono, если ответ не сохранен
+   */
+  public Mono<CachedResponse> result() {
+    return response != null ? Mono.just(response) : sink.asMono();
+  }
+
+  /**
+   * Передает ответ ожидающим запросам.
+   *
+   * @param cachedResponse ответ первого запроса
+   */
+  public void complete(CachedResponse cachedResponse) {
+    sink.tryEmitValue(cachedResponse);
+  }
+
+  /**
+   * Сообщает ожидающим запросам, что ответа не будет.
+   */
+  public void abandon() {
+    sink.tryEmitEmpty();
+  }
+
+  /**
+   * Возвращает размер записи в байтах для ограничения памяти хранилища.
+   *
+   * @return размер записи
+   */
+  public int weight() {
+    return response == null ? 1 : Math.max(1, response.body().length);
+  }
+}
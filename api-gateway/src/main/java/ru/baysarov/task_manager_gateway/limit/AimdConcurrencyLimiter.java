@@ -0,0 +1,126 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Адаптивный ограничитель количества одновременно выполняющихся запросов (AIMD).
+ * <p>
+ * Если запрос выполнился быстрее порога задержки, а текущий лимит действительно используется
+ * (занято не меньше половины), лимит увеличивается на единицу. Если запрос завершился ошибкой,
+ * ответом 5xx или превысил порог задержки, лимит умножается на {@code backoffRatio}. Лимит всегда
+ * остается в пределах {@code [minLimit, maxLimit]}.
+ */
+public class AimdConcurrencyLimiter {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong limitBits;
+
+  /**
+   * Конструктор для AimdConcurrencyLimiter.
+   *
+   * @param initialLimit          начальный лимит
+   * @param minLimit              минимальный лимит
+   * @param maxLimit              максимальный лимит
+   * @param latencyThresholdNanos порог задержки, после которого лимит уменьшается
+   * @param backoffRatio          множитель уменьшения лимита
+   */
+  public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+      long latencyThresholdNanos, double backoffRatio) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+    }
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Backoff ratio must be in (0, 1): " + backoffRatio);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = latencyThresholdNanos;
+    this.backoffRatio = backoffRatio;
+    this.limitBits = new AtomicLong(
+        Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+  }
+
+  /**
+   * Пытается занять место для запроса.
+   *
+   * @return true, если запрос можно выполнять; false, если лимит исчерпан
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Освобождает место после успешного выполнения запроса и корректирует лимит по задержке.
+   *
+   * @param latencyNanos время выполнения запроса
+   */
+  public void onSuccess(long latencyNanos) {
+    int current = inFlight.getAndDecrement();
+    if (latencyNanos > latencyThresholdNanos) {
+      decrease();
+    } else if (current * 2 >= getLimit()) {
+      updateLimit(limit -> Math.min(maxLimit, limit + 1));
+    }
+  }
+
+  /**
+   * Освобождает место после запроса, завершившегося ошибкой или ответом 5xx, и уменьшает лимит.
+   */
+  public void onDropped() {
+    inFlight.decrementAndGet();
+    decrease();
+  }
+
+  /**
+   * Освобождает место без изменения лимита (например, если клиент отменил запрос).
+   */
+  public void onIgnore() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Возвращает текущий лимит.
+   *
+   * @return лимит одновременно выполняющихся запросов
+   */
+  public int getLimit() {
+    return (int) Double.longBitsToDouble(limitBits.get());
+  }
+
+  /**
+   * Возвращает количество выполняющихся запросов.
+   *
+   * @return количество выполняющихся запросов
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void decrease() {
+    updateLimit(limit -> Math.max(minLimit, limit * backoffRatio));
+  }
+
+  private void updateLimit(DoubleUnaryOperator operator) {
+    while (true) {
+      long currentBits = limitBits.get();
+      double updated = operator.applyAsDouble(Double.longBitsToDouble(currentBits));
+      if (limitBits.compareAndSet(currentBits, Double.doubleToLongBits(updated))) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Сброс нагрузки с учетом приоритета запросов.
+ * <p>
+ * Считает все выполняющиеся через шлюз запросы. Запросы {@link RequestPriority#NORMAL}
+ * выполняются всегда. Запрос {@link RequestPriority#LOW} выполняется сразу, только если
+ * выполняющихся запросов меньше {@code lowPriorityThreshold}; иначе он ждет в ограниченной очереди
+ * не дольше {@code queueTimeout}. Если очередь заполнена или время ожидания истекло, запрос
+ * отклоняется.
+ */
+public class LoadShedder {
+
+  private final int lowPriorityThreshold;
+  private final int maxQueueSize;
+  private final Duration queueTimeout;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Конструктор для LoadShedder.
+   *
+   * @param lowPriorityThreshold количество выполняющихся запросов, начиная с которого запросы
+   *                             низкого приоритета ждут в очереди
+   * @param maxQueueSize         максимальная длина очереди
+   * @param queueTimeout         максимальное время ожидания в очереди
+   */
+  public LoadShedder(int lowPriorityThreshold, int maxQueueSize, Duration queueTimeout) {
+    this.lowPriorityThreshold = lowPriorityThreshold;
+    this.maxQueueSize = maxQueueSize;
+    this.queueTimeout = queueTimeout;
+  }
+
+  /**
+   * Пытается начать выполнение запроса.
+   *
+   * @param priority приоритет запроса
+   * @return Mono с {@code true}, если запрос можно выполнять (тогда обязателен вызов
+   *     {@link #release()}), или {@code false}, если запрос нужно отклонить
+   */
+  public Mono<Boolean> acquire(RequestPriority priority) {
+    if (priority != RequestPriority.LOW) {
+      inFlight.incrementAndGet();
+      return Mono.just(true);
+    }
+    if (queued.get() == 0 && tryAcquireLow()) {
+      return Mono.just(true);
+    }
+    if (queued.incrementAndGet() > maxQueueSize) {
+      queued.decrementAndGet();
+      return Mono.just(false);
+    }
+    return Mono.create(sink -> {
+      Waiter waiter = new Waiter(sink);
+      waiters.offer(waiter);
+      Disposable timeout = Schedulers.parallel().schedule(() -> {
+        if (waiter.claim()) {
+          waiters.remove(waiter);
+          queued.decrementAndGet();
+          sink.success(false);
+        }
+      }, queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+      sink.onDispose(timeout);
+      sink.onCancel(() -> {
+        if (waiter.claim()) {
+          waiters.remove(waiter);
+          queued.decrementAndGet();
+        }
+      });
+      drain();
+    });
+  }
+
+  /**
+   * Завершает выполнение запроса и пропускает ожидающие запросы, если нагрузка снизилась.
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+    if (!waiters.isEmpty()) {
+      drain();
+    }
+  }
+
+  /**
+   * Возвращает количество выполняющихся запросов.
+   *
+   * @return количество выполняющихся запросов
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Возвращает количество запросов в очереди.
+   *
+   * @return количество ожидающих запросов
+   */
+  public int getQueued() {
+    return queued.get();
+  }
+
+  private boolean tryAcquireLow() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= lowPriorityThreshold) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void drain() {
+    while (!waiters.isEmpty() && tryAcquireLow()) {
+      Waiter waiter = waiters.poll();
+      if (waiter != null && waiter.claim()) {
+        queued.decrementAndGet();
+        waiter.sink().success(true);
+      } else {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Ожидающий запрос. Флаг {@code claimed} гарантирует, что запрос будет либо пропущен, либо
+   * отклонен по таймауту, но не то и другое одновременно. Запрос, отклоненный по таймауту или
+   * отмененный, сразу удаляется из очереди, чтобы очередь не копила завершенные запросы, пока
+   * нагрузка не снизится.
+   */
+  private record Waiter(MonoSink<Boolean> sink, AtomicBoolean claimed) {
+
+    Waiter(MonoSink<Boolean> sink) {
+      this(sink, new AtomicBoolean());
+    }
+
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+}
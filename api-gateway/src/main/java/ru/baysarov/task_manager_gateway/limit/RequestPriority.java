@@ -0,0 +1,33 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+/**
+ * Класс приоритета маршрута. Задается в метаданных маршрута ключом {@code priority}.
+ */
+public enum RequestPriority {
+  /**
+   * Тяжелые некритичные по задержке запросы (отчеты). При перегрузке ставятся в очередь или
+   * отклоняются.
+   */
+  LOW,
+  /**
+   * Интерактивные запросы. Не задерживаются механизмом сброса нагрузки.
+   */
+  NORMAL;
+
+  /**
+   * Определяет приоритет по значению из метаданных маршрута.
+   *
+   * @param value значение метаданных или {@code null}
+   * @return приоритет; {@link #NORMAL}, если значение не задано или не распознано
+   */
+  public static RequestPriority from(Object value) {
+    if (value == null) {
+      return NORMAL;
+    }
+    try {
+      return valueOf(value.toString().trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      return NORMAL;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничитель частоты запросов пользователей одного маршрута.
+ * <p>
+ * Каждому пользователю соответствует ведро токенов, записанное в виде алгоритма GCRA: вместо
+ * количества токенов хранится одно число — теоретическое время следующего запроса. Проверка
+ * выполняется одной CAS-операцией над {@link AtomicLong}, без блокировок. Счетчики пользователей,
+ * не обращавшихся дольше {@code idleTimeout}, удаляются.
+ */
+public class UserRateLimiter {
+
+  private final Cache<String, AtomicLong> buckets;
+
+  /**
+   * Конструктор для UserRateLimiter.
+   *
+   * @param idleTimeout время бездействия, после которого счетчик пользователя удаляется
+   * @param maximumKeys максимальное количество хранимых счетчиков
+   */
+  public UserRateLimiter(Duration idleTimeout, long maximumKeys) {
+    this.buckets = Caffeine.newBuilder()
+        .expireAfterAccess(idleTimeout)
+        .maximumSize(maximumKeys)
+        .build();
+  }
+
+  /**
+   * Пытается выполнить запрос пользователя в пределах лимита.
+   *
+   * @param key       ключ пользователя
+   * @param bandwidth лимит пользователя
+   * @return 0, если запрос разрешен, иначе время в наносекундах до следующего разрешенного запроса
+   */
+  public long tryAcquire(String key, Bandwidth bandwidth) {
+    AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+    long now = System.nanoTime();
+    while (true) {
+      long current = theoreticalArrival.get();
+      long next = Math.max(current, now) + bandwidth.intervalNanos();
+      long allowedAt = next - bandwidth.toleranceNanos();
+      if (allowedAt > now) {
+        return allowedAt - now;
+      }
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Лимит в виде, удобном для GCRA.
+   *
+   * @param intervalNanos  интервал между запросами при равномерной нагрузке
+   * @param toleranceNanos допустимое опережение графика (размер всплеска)
+   */
+  public record Bandwidth(long intervalNanos, long toleranceNanos) {
+
+    /**
+     * Создает лимит по частоте и размеру всплеска.
+     *
+     * @param ratePerSecond количество запросов в секунду
+     * @param burst         количество запросов, которое можно выполнить подряд
+     * @return лимит
+     */
+    public static Bandwidth of(double ratePerSecond, int burst) {
+      if (ratePerSecond <= 0 || burst < 1) {
+        throw new IllegalArgumentException(
+            "Invalid rate limit: rate " + ratePerSecond + ", burst " + burst);
+      }
+      long interval = (long) (1_000_000_000L / ratePerSecond);
+      return new Bandwidth(interval, interval * burst);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package ru.baysarov.task_manager_gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Отслеживает нагрузку на экземпляры сервисов: количество выполняющихся через шлюз запросов и
+ * задержку ответа (peak EWMA).
+ * <p>
+ * Компонент подключается к Spring Cloud LoadBalancer как {@link LoadBalancerLifecycle}, поэтому
+ * учитывает и маршруты {@code lb://}, и запросы через балансирующий {@code WebClient}. Медленный
+ * ответ сразу поднимает оценку задержки до наблюдаемого значения, после чего она плавно
+ * затухает с постоянной времени {@code gateway.load-balancer.decay-time}. Ошибка учитывается как
+ * задержка не меньше {@code gateway.load-balancer.failure-penalty}.
+ */
+@Component
+public class InstanceLoadTracker implements
+    LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+  private final double decayNanos;
+  private final long failurePenaltyNanos;
+  private final Cache<String, InstanceLoad> loads;
+
+  /**
+   * Конструктор для InstanceLoadTracker.
+   *
+   * @param decayTime      постоянная времени затухания оценки задержки
+   * @param failurePenalty задержка, учитываемая при ошибке запроса
+   */
+  public InstanceLoadTracker(
+      @Value("${gateway.load-balancer.decay-time:10s}") Duration decayTime,
+      @Value("${gateway.load-balancer.failure-penalty:1s}") Duration failurePenalty) {
+    this.decayNanos = decayTime.toNanos();
+    this.failurePenaltyNanos = failurePenalty.toNanos();
+    this.loads = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build();
+  }
+
+  @Override
+  public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+    return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+  }
+
+  @Override
+  public void onStart(Request<Object> request) {
+  }
+
+  @Override
+  public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+    if (!lbResponse.hasServer()) {
+      return;
+    }
+    if (request.getContext() instanceof TimedRequestContext context
+        && context.getRequestStartTime() == 0) {
+      context.setRequestStartTime(System.nanoTime());
+    }
+    loadOf(lbResponse.getServer()).inFlight().incrementAndGet();
+  }
+
+  @Override
+  public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+    Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+    if (completionContext.status() == CompletionContext.Status.DISCARD
+        || lbResponse == null || !lbResponse.hasServer()) {
+      return;
+    }
+    InstanceLoad load = loadOf(lbResponse.getServer());
+    load.inFlight().decrementAndGet();
+
+    long latencyNanos = -1;
+    Request<Object> request = completionContext.getLoadBalancerRequest();
+    if (request != null && request.getContext() instanceof TimedRequestContext context
+        && context.getRequestStartTime() != 0) {
+      latencyNanos = System.nanoTime() - context.getRequestStartTime();
+    }
+    if (completionContext.status() == CompletionContext.Status.FAILED) {
+      latencyNanos = Math.max(latencyNanos, failurePenaltyNanos);
+    }
+    if (latencyNanos >= 0) {
+      load.record(latencyNanos, decayNanos);
+    }
+  }
+
+  /**
+   * Возвращает стоимость отправки очередного запроса на экземпляр: оценка задержки, умноженная на
+   * количество выполняющихся запросов плюс один. Для экземпляров без статистики стоимость нулевая,
+   * поэтому новые экземпляры сразу получают запросы.
+   *
+   * @param instance экземпляр сервиса
+   * @return стоимость; меньше — лучше
+   */
+  public double cost(ServiceInstance instance) {
+    InstanceLoad load = loads.getIfPresent(keyOf(instance));
+    if (load == null) {
+      return 0;
+    }
+    return (load.latencyNanos(decayNanos) + 1) * (load.inFlight().get() + 1);
+  }
+
+  private InstanceLoad loadOf(ServiceInstance instance) {
+    return loads.get(keyOf(instance), key -> new InstanceLoad());
+  }
+
+  private static String keyOf(ServiceInstance instance) {
+    return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+  }
+
+  /**
+   * Нагрузка на один экземпляр сервиса.
+   */
+  private static final class InstanceLoad {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double ewmaNanos;
+    private long updatedAt = System.nanoTime();
+
+    AtomicInteger inFlight() {
+      return inFlight;
+    }
+
+    synchronized void record(long latencyNanos, double decayNanos) {
+      long now = System.nanoTime();
+      double current = decayed(now, decayNanos);
+      if (latencyNanos > current) {
+        ewmaNanos = latencyNanos;
+      } else {
+        double weight = Math.exp(-(now - updatedAt) / decayNanos);
+        ewmaNanos = current * weight + latencyNanos * (1 - weight);
+      }
+      updatedAt = now;
+    }
+
+    synchronized double latencyNanos(double decayNanos) {
+      return decayed(System.nanoTime(), decayNanos);
+    }
+
+    private double decayed(long now, double decayNanos) {
+      return ewmaNanos * Math.exp(-(now - updatedAt) / decayNanos);
+    }
+  }
+}
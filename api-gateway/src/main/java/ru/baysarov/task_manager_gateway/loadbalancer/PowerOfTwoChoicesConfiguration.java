@@ -0,0 +1,28 @@
+package ru.baysarov.task_manager_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Конфигурация дочернего контекста Spring Cloud LoadBalancer для каждого сервиса.
+ * <p>
+ * Класс намеренно не помечен {@code @Configuration}: он подключается через
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)} и не должен попасть в основной
+ * контекст при сканировании компонентов.
+ */
+public class PowerOfTwoChoicesConfiguration {
+
+  @Bean
+  public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+      Environment environment, LoadBalancerClientFactory loadBalancerClientFactory,
+      InstanceLoadTracker instanceLoadTracker) {
+    String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+    return new PowerOfTwoChoicesLoadBalancer(
+        loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+        serviceId, instanceLoadTracker);
+  }
+}
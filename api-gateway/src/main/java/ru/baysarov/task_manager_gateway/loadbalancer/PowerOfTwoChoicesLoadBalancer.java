@@ -0,0 +1,75 @@
+package ru.baysarov.task_manager_gateway.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Балансировщик "power of two choices": из списка экземпляров случайно выбираются два, и запрос
+ * отправляется на тот, у которого меньше стоимость по данным {@link InstanceLoadTracker}.
+ * <p>
+ * В отличие от round-robin, медленный экземпляр (пауза GC, построение отчета) быстро перестает
+ * получать полную долю запросов, а случайный выбор пары не дает всем экземплярам шлюза
+ * одновременно переключиться на один и тот же наименее загруженный экземпляр.
+ */
+@Slf4j
+public class PowerOfTwoChoicesLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+  private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+  private final String serviceId;
+  private final InstanceLoadTracker instanceLoadTracker;
+
+  /**
+   * Конструктор для PowerOfTwoChoicesLoadBalancer.
+   *
+   * @param serviceInstanceListSupplierProvider поставщик списка экземпляров сервиса
+   * @param serviceId                           идентификатор сервиса
+   * @param instanceLoadTracker                 статистика нагрузки на экземпляры
+   */
+  public PowerOfTwoChoicesLoadBalancer(
+      ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+      String serviceId, InstanceLoadTracker instanceLoadTracker) {
+    this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+    this.serviceId = serviceId;
+    this.instanceLoadTracker = instanceLoadTracker;
+  }
+
+  @Override
+  public Mono<Response<ServiceInstance>> choose(Request request) {
+    ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+        .getIfAvailable(NoopServiceInstanceListSupplier::new);
+    return supplier.get(request).next().map(this::choose);
+  }
+
+  private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+    if (instances.isEmpty()) {
+      log.warn("No servers available for service: {}", serviceId);
+      return new EmptyResponse();
+    }
+    if (instances.size() == 1) {
+      return new DefaultResponse(instances.get(0));
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(instances.size());
+    int second = random.nextInt(instances.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    ServiceInstance firstInstance = instances.get(first);
+    ServiceInstance secondInstance = instances.get(second);
+    return new DefaultResponse(
+        instanceLoadTracker.cost(secondInstance) < instanceLoadTracker.cost(firstInstance)
+            ? secondInstance : firstInstance);
+  }
+}
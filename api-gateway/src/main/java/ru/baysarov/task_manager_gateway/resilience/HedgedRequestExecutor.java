@@ -0,0 +1,216 @@
+package ru.baysarov.task_manager_gateway.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Выполняет запросы к Auth-сервису с дублированием (hedging) и повтором.
+ * <p>
+ * Если ответ на запрос не получен за время, равное 95-му перцентилю задержки Auth-сервиса
+ * (в пределах {@code auth.hedging.min-delay}..{@code auth.hedging.max-delay}), отправляется
+ * дублирующий запрос; балансировщик направляет его на менее загруженный экземпляр. Если запрос
+ * завершился ошибкой, которую имеет смысл повторить, до отправки дубля, он сразу повторяется.
+ * Результатом становится первый полученный ответ, остальные попытки отменяются. Всего выполняется
+ * не больше двух попыток, а каждая дополнительная попытка списывается из общего
+ * {@link RetryBudget}.
+ */
+@Component
+@Slf4j
+public class HedgedRequestExecutor {
+
+  private final boolean enabled;
+  private final Duration minDelay;
+  private final Duration maxDelay;
+  private final Timer latency;
+  private final RetryBudget retryBudget;
+  private final Counter hedgedCounter;
+  private final Counter retriedCounter;
+  private volatile long hedgeDelayNanos;
+  private volatile long hedgeDelayUpdatedAt;
+
+  /**
+   * Конструктор для HedgedRequestExecutor.
+   *
+   * @param enabled          признак включения дублирования и повторов
+   * @param minDelay         минимальная задержка перед отправкой дубля
+   * @param maxDelay         максимальная задержка перед отправкой дубля
+   * @param budgetRatio      доля запросов, которую можно повторить или продублировать
+   * @param budgetMinPerSec  количество дополнительных попыток в секунду при любом трафике
+   * @param budgetMaxBalance максимальное количество накопленных попыток
+   * @param meterRegistry    реестр метрик
+   */
+  public HedgedRequestExecutor(@Value("${auth.hedging.enabled:true}") boolean enabled,
+      @Value("${auth.hedging.min-delay:5ms}") Duration minDelay,
+      @Value("${auth.hedging.max-delay:500ms}") Duration maxDelay,
+      @Value("${auth.retry-budget.ratio:0.1}") double budgetRatio,
+      @Value("${auth.retry-budget.min-per-second:10}") int budgetMinPerSec,
+      @Value("${auth.retry-budget.max-balance:100}") int budgetMaxBalance,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.minDelay = minDelay;
+    this.maxDelay = maxDelay;
+    this.hedgeDelayNanos = maxDelay.toNanos();
+    this.retryBudget = new RetryBudget(budgetRatio, budgetMinPerSec, budgetMaxBalance);
+    this.latency = Timer.builder("gateway.auth.remote.latency")
+        .publishPercentiles(0.95)
+        .distributionStatisticExpiry(Duration.ofSeconds(30))
+        .distributionStatisticBufferLength(3)
+        .register(meterRegistry);
+    this.hedgedCounter = Counter.builder("gateway.auth.remote.attempts")
+        .tag("type", "hedge")
+        .register(meterRegistry);
+    this.retriedCounter = Counter.builder("gateway.auth.remote.attempts")
+        .tag("type", "retry")
+        .register(meterRegistry);
+    Gauge.builder("gateway.auth.retry_budget.balance", retryBudget, RetryBudget::getBalance)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Выполняет запрос с дублированием и повтором.
+   *
+   * @param call      создает новую попытку запроса
+   * @param retryable определяет, имеет ли смысл повторять запрос после ошибки
+   * @param <T>       тип результата
+   * @return Mono с результатом первой успешной попытки или ошибкой последней попытки
+   */
+  public <T> Mono<T> execute(Supplier<Mono<T>> call, Predicate<Throwable> retryable) {
+    if (!enabled) {
+      return timed(call.get());
+    }
+    return Mono.create(sink -> {
+      retryBudget.deposit();
+      Race<T> race = new Race<>(sink, call, retryable);
+      sink.onDispose(race.disposables);
+      race.launch();
+      race.disposables.add(Schedulers.parallel().schedule(race::hedge, hedgeDelayNanos(),
+          TimeUnit.NANOSECONDS));
+    });
+  }
+
+  /**
+   * Измеряет время попытки независимо от ее исхода. Попытки, завершившиеся ошибкой или отмененные
+   * по тайм-ауту, тоже попадают в перцентиль: иначе при медленном Auth-сервисе перцентиль считался
+   * бы только по быстрым ответам и дубли отправлялись бы слишком рано.
+   */
+  private <T> Mono<T> timed(Mono<T> attempt) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return attempt.doFinally(
+          signal -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  /**
+   * Возвращает задержку перед отправкой дубля. Значение 95-го перцентиля пересчитывается не чаще
+   * раза в секунду.
+   */
+  private long hedgeDelayNanos() {
+    long now = System.nanoTime();
+    if (now - hedgeDelayUpdatedAt > 1_000_000_000L) {
+      hedgeDelayUpdatedAt = now;
+      double p95 = 0;
+      for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+        p95 = value.value(TimeUnit.NANOSECONDS);
+      }
+      if (p95 > 0) {
+        hedgeDelayNanos = Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), (long) p95));
+      }
+    }
+    return hedgeDelayNanos;
+  }
+
+  /**
+   * Состояние одного выполнения: исходная попытка и не больше одной дополнительной.
+   */
+  private final class Race<T> {
+
+    private final MonoSink<T> sink;
+    private final Supplier<Mono<T>> call;
+    private final Predicate<Throwable> retryable;
+    private final Disposable.Composite disposables = Disposables.composite();
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final AtomicBoolean extraAttemptUsed = new AtomicBoolean();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private Race(MonoSink<T> sink, Supplier<Mono<T>> call, Predicate<Throwable> retryable) {
+      this.sink = sink;
+      this.call = call;
+      this.retryable = retryable;
+    }
+
+    private void launch() {
+      active.incrementAndGet();
+      disposables.add(timed(call.get()).subscribe(this::succeed, this::fail, this::complete));
+    }
+
+    private void hedge() {
+      if (!done.get() && extraAttemptUsed.compareAndSet(false, true)
+          && retryBudget.tryWithdraw()) {
+        hedgedCounter.increment();
+        log.debug("Auth validation is slow, sending hedged request");
+        launch();
+      }
+    }
+
+    /**
+     * Завершает выполнение результатом попытки. Остальные попытки отменяются до передачи
+     * результата, чтобы они не продолжали выполняться, когда вызывающий уже получил ответ.
+     */
+    private void succeed(T value) {
+      if (done.compareAndSet(false, true)) {
+        disposables.dispose();
+        sink.success(value);
+      }
+    }
+
+    private void complete() {
+      if (done.compareAndSet(false, true)) {
+        disposables.dispose();
+        sink.success();
+      }
+    }
+
+    private void fail(Throwable throwable) {
+      if (!retryable.test(throwable)) {
+        finishWithError(throwable);
+        return;
+      }
+      int remaining = active.decrementAndGet();
+      if (!done.get() && extraAttemptUsed.compareAndSet(false, true)
+          && retryBudget.tryWithdraw()) {
+        retriedCounter.increment();
+        log.warn("Auth validation failed, retrying: {}", throwable.getMessage());
+        launch();
+        return;
+      }
+      if (remaining == 0) {
+        finishWithError(throwable);
+      }
+    }
+
+    private void finishWithError(Throwable throwable) {
+      if (done.compareAndSet(false, true)) {
+        disposables.dispose();
+        sink.error(throwable);
+      }
+    }
+  }
+}
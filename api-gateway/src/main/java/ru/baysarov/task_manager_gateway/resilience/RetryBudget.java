@@ -0,0 +1,90 @@
+package ru.baysarov.task_manager_gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий бюджет повторных и дублирующих запросов.
+ * <p>
+ * Каждый исходный запрос пополняет бюджет на {@code depositRatio} попытки, кроме того бюджет
+ * пополняется на {@code minPerSecond} попыток в секунду независимо от нагрузки. Повтор возможен,
+ * только если в бюджете есть целая попытка. Так повторы не превышают заданную долю от трафика и
+ * не умножают нагрузку на сервис во время сбоя. Баланс хранится в тысячных долях попытки.
+ */
+public class RetryBudget {
+
+  private static final long UNIT = 1000;
+
+  private final long depositPerRequest;
+  private final long minPerSecond;
+  private final long maxBalance;
+  private final AtomicLong balance;
+  private final AtomicLong lastRefill = new AtomicLong(System.nanoTime());
+
+  /**
+   * Конструктор для RetryBudget.
+   *
+   * @param depositRatio доля исходных запросов, которую можно повторить
+   * @param minPerSecond количество повторов в секунду, доступное при любом трафике
+   * @param maxBalance   максимальное количество накопленных попыток
+   */
+  public RetryBudget(double depositRatio, int minPerSecond, int maxBalance) {
+    this.depositPerRequest = (long) (depositRatio * UNIT);
+    this.minPerSecond = minPerSecond * UNIT;
+    this.maxBalance = maxBalance * UNIT;
+    this.balance = new AtomicLong(this.maxBalance);
+  }
+
+  /**
+   * Учитывает исходный запрос.
+   */
+  public void deposit() {
+    add(depositPerRequest);
+  }
+
+  /**
+   * Пытается списать из бюджета одну попытку.
+   *
+   * @return true, если повтор разрешен
+   */
+  public boolean tryWithdraw() {
+    refill();
+    while (true) {
+      long current = balance.get();
+      if (current < UNIT) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - UNIT)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Возвращает количество доступных попыток.
+   *
+   * @return баланс бюджета
+   */
+  public double getBalance() {
+    return (double) balance.get() / UNIT;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    long last = lastRefill.get();
+    long elapsed = now - last;
+    if (elapsed < 10_000_000L || !lastRefill.compareAndSet(last, now)) {
+      return;
+    }
+    add(minPerSecond * elapsed / 1_000_000_000L);
+  }
+
+  private void add(long amount) {
+    while (true) {
+      long current = balance.get();
+      long updated = Math.min(maxBalance, current + amount);
+      if (updated == current || balance.compareAndSet(current, updated)) {
+        return;
+      }
+    }
+  }
+}
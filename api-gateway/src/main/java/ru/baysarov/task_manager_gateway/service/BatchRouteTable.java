@@ -0,0 +1,123 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.limit.RequestPriority;
+
+/**
+ * Таблица маршрутов для запросов внутри пакета ({@code POST /api/v1/batch}).
+ * <p>
+ * Строится из определений маршрутов шлюза: для каждого маршрута берутся шаблоны предиката
+ * {@code Path}, адрес сервиса, имена фильтров и приоритет из метаданных. Таблица строится при
+ * первом обращении и перестраивается после {@link RefreshRoutesEvent}.
+ */
+@Component
+public class BatchRouteTable {
+
+  private final RouteDefinitionLocator routeDefinitionLocator;
+  private volatile Mono<List<BatchRoute>> routes;
+
+  /**
+   * Конструктор для BatchRouteTable.
+   *
+   * @param routeDefinitionLocator источник определений маршрутов
+   */
+  public BatchRouteTable(RouteDefinitionLocator routeDefinitionLocator) {
+    this.routeDefinitionLocator = routeDefinitionLocator;
+    this.routes = load();
+  }
+
+  @EventListener(RefreshRoutesEvent.class)
+  void refresh() {
+    routes = load();
+  }
+
+  /**
+   * Находит маршрут для пути запроса.
+   *
+   * @param path путь запроса без строки параметров
+   * @return Mono с маршрутом или пустой Mono, если маршрута нет
+   */
+  public Mono<BatchRoute> find(String path) {
+    PathContainer pathContainer = PathContainer.parsePath(path);
+    return routes.flatMap(batchRoutes -> {
+      for (BatchRoute route : batchRoutes) {
+        for (PathPattern pattern : route.patterns()) {
+          if (pattern.matches(pathContainer)) {
+            return Mono.just(route);
+          }
+        }
+      }
+      return Mono.empty();
+    });
+  }
+
+  private Mono<List<BatchRoute>> load() {
+    return routeDefinitionLocator.getRouteDefinitions()
+        .map(BatchRouteTable::toBatchRoute)
+        .filter(route -> !route.patterns().isEmpty())
+        .collectList()
+        .cache();
+  }
+
+  private static BatchRoute toBatchRoute(RouteDefinition definition) {
+    List<PathPattern> patterns = new ArrayList<>();
+    for (PredicateDefinition predicate : definition.getPredicates()) {
+      if (!"Path".equals(predicate.getName())) {
+        continue;
+      }
+      for (String value : predicate.getArgs().values()) {
+        for (String pattern : value.split(",")) {
+          if (!pattern.isBlank()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(pattern.trim()));
+          }
+        }
+      }
+    }
+    Set<String> filters = new HashSet<>();
+    for (FilterDefinition filter : definition.getFilters()) {
+      filters.add(filter.getName());
+    }
+    return new BatchRoute(definition.getId(), baseUrl(definition.getUri()), patterns,
+        Set.copyOf(filters), RequestPriority.from(definition.getMetadata().get("priority")));
+  }
+
+  /**
+   * Преобразует адрес маршрута в базовый адрес для балансирующего клиента: {@code lb://SERVICE}
+   * становится {@code http://SERVICE}.
+   */
+  private static String baseUrl(URI uri) {
+    if ("lb".equals(uri.getScheme())) {
+      return "http://" + uri.getHost();
+    }
+    return uri.toString().replaceAll("/+$", "");
+  }
+
+  /**
+   * Маршрут, доступный для запросов внутри пакета.
+   *
+   * @param id       идентификатор маршрута
+   * @param baseUrl  базовый адрес сервиса
+   * @param patterns шаблоны путей маршрута
+   * @param filters  имена фильтров маршрута
+   * @param priority приоритет маршрута для сброса нагрузки
+   */
+  public record BatchRoute(String id, String baseUrl, List<PathPattern> patterns,
+                           Set<String> filters, RequestPriority priority) {
+
+  }
+}
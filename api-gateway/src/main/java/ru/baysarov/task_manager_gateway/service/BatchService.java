@@ -0,0 +1,359 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.BatchSubRequest;
+import ru.baysarov.task_manager_gateway.dto.BatchSubResponse;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.filter.AccessLevel;
+import ru.baysarov.task_manager_gateway.filter.ConcurrencyLimitFilter;
+import ru.baysarov.task_manager_gateway.filter.IdempotencyFilter;
+import ru.baysarov.task_manager_gateway.filter.LoadSheddingFilter;
+import ru.baysarov.task_manager_gateway.filter.RouteMetricsFilter;
+import ru.baysarov.task_manager_gateway.filter.RouteRule;
+import ru.baysarov.task_manager_gateway.filter.RouteValidator;
+import ru.baysarov.task_manager_gateway.filter.UserRateLimitFilter;
+import ru.baysarov.task_manager_gateway.idempotency.CachedResponse;
+import ru.baysarov.task_manager_gateway.service.BatchRouteTable.BatchRoute;
+
+/**
+ * Сервис выполнения пакета запросов.
+ * <p>
+ * Пользователь аутентифицируется один раз для всего пакета, после чего запросы выполняются
+ * параллельно (не больше {@code gateway.batch.max-concurrency} одновременно) через
+ * балансирующий клиент. Для каждого запроса проверяются права доступа по правилам
+ * {@code gateway.security} (неизвестные роли запрашиваются у Auth-сервиса, без них доступ по
+ * правилу роли запрещается) и передаются те же заголовки, что добавляет
+ * {@code AuthenticationFilter}. Каждый запрос учитывается в тех же ограничениях, что и запрос
+ * к маршруту напрямую: лимите частоты запросов пользователя, сбросе нагрузки, лимите
+ * одновременных запросов маршрута и метрике {@code gateway.route.latency}. Отклоненный запрос
+ * получает собственный ответ 429 или 503. Запрос с {@code idempotencyKey} к маршруту с
+ * {@link IdempotencyFilter} выполняется через то же хранилище ключей идемпотентности, что и
+ * запрос к маршруту напрямую. Ответы возвращаются в порядке готовности.
+ */
+@Service
+@Slf4j
+public class BatchService {
+
+  private static final Set<HttpMethod> SUPPORTED_METHODS = Set.of(HttpMethod.GET,
+      HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+  private final WebClient servicesWebClient;
+  private final BatchRouteTable batchRouteTable;
+  private final RouteValidator routeValidator;
+  private final TrustedHeaderSigner trustedHeaderSigner;
+  private final TokenValidationService tokenValidationService;
+  private final UserRateLimitFilter userRateLimitFilter;
+  private final ConcurrencyLimitFilter concurrencyLimitFilter;
+  private final LoadSheddingFilter loadSheddingFilter;
+  private final RouteMetricsFilter routeMetricsFilter;
+  private final IdempotencyFilter idempotencyFilter;
+  private final ObjectMapper objectMapper;
+  private final int maxConcurrency;
+  private final int maxRequests;
+
+  /**
+   * Конструктор для BatchService.
+   *
+   * @param servicesWebClient      клиент для запросов к сервисам
+   * @param batchRouteTable        таблица маршрутов
+   * @param routeValidator         валидатор маршрутов для проверки прав доступа
+   * @param trustedHeaderSigner    компонент формирования подписанных заголовков пользователя
+   * @param tokenValidationService сервис проверки токенов для запроса неизвестных ролей
+   * @param userRateLimitFilter    фильтр ограничения частоты запросов пользователя
+   * @param concurrencyLimitFilter фильтр ограничения одновременных запросов маршрута
+   * @param loadSheddingFilter     фильтр сброса нагрузки
+   * @param routeMetricsFilter     фильтр метрик маршрутов
+   * @param idempotencyFilter      фильтр ключей идемпотентности
+   * @param objectMapper           ObjectMapper для разбора ответов
+   * @param maxConcurrency         максимальное количество одновременно выполняющихся запросов
+   * @param maxRequests            максимальное количество запросов в пакете
+   */
+  public BatchService(@Qualifier("servicesWebClient") WebClient servicesWebClient,
+      BatchRouteTable batchRouteTable, RouteValidator routeValidator,
+      TrustedHeaderSigner trustedHeaderSigner, TokenValidationService tokenValidationService,
+      UserRateLimitFilter userRateLimitFilter,
+      ConcurrencyLimitFilter concurrencyLimitFilter, LoadSheddingFilter loadSheddingFilter,
+      RouteMetricsFilter routeMetricsFilter, IdempotencyFilter idempotencyFilter,
+      ObjectMapper objectMapper,
+      @Value("${gateway.batch.max-concurrency:16}") int maxConcurrency,
+      @Value("${gateway.batch.max-requests:500}") int maxRequests) {
+    this.servicesWebClient = servicesWebClient;
+    this.batchRouteTable = batchRouteTable;
+    this.routeValidator = routeValidator;
+    this.trustedHeaderSigner = trustedHeaderSigner;
+    this.tokenValidationService = tokenValidationService;
+    this.userRateLimitFilter = userRateLimitFilter;
+    this.concurrencyLimitFilter = concurrencyLimitFilter;
+    this.loadSheddingFilter = loadSheddingFilter;
+    this.routeMetricsFilter = routeMetricsFilter;
+    this.idempotencyFilter = idempotencyFilter;
+    this.objectMapper = objectMapper;
+    this.maxConcurrency = maxConcurrency;
+    this.maxRequests = maxRequests;
+  }
+
+  /**
+   * Возвращает максимальное количество запросов в пакете.
+   *
+   * @return максимальный размер пакета
+   */
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  /**
+   * Выполняет пакет запросов.
+   *
+   * @param requests      запросы пакета
+   * @param authorization значение заголовка Authorization исходного запроса
+   * @param userDto       аутентифицированный пользователь
+   * @return поток ответов в порядке готовности
+   */
+  public Flux<BatchSubResponse> execute(List<BatchSubRequest> requests, String authorization,
+      UserDto userDto) {
+    return Flux.fromIterable(requests)
+        .flatMap(request -> execute(request, authorization, userDto), maxConcurrency);
+  }
+
+  private Mono<BatchSubResponse> execute(BatchSubRequest request, String authorization,
+      UserDto userDto) {
+    HttpMethod method = request.getMethod() == null
+        ? HttpMethod.GET : HttpMethod.valueOf(request.getMethod().toUpperCase());
+    if (!SUPPORTED_METHODS.contains(method)) {
+      return Mono.just(error(request, HttpStatus.BAD_REQUEST,
+          "Unsupported method " + request.getMethod()));
+    }
+    String pathAndQuery = request.getPath();
+    if (pathAndQuery == null || !pathAndQuery.startsWith("/")) {
+      return Mono.just(error(request, HttpStatus.BAD_REQUEST, "Path must start with '/'"));
+    }
+    int queryStart = pathAndQuery.indexOf('?');
+    String path = normalizePath(
+        queryStart < 0 ? pathAndQuery : pathAndQuery.substring(0, queryStart));
+    if (path == null) {
+      return Mono.just(error(request, HttpStatus.BAD_REQUEST, "Invalid path"));
+    }
+    String query = queryStart < 0 ? "" : pathAndQuery.substring(queryStart);
+
+    RouteRule routeRule = routeValidator.resolve(PathContainer.parsePath(path));
+    Mono<UserDto> user = Mono.just(userDto);
+    if (routeRule.getAccess() == AccessLevel.ROLE && userDto.getRoles() == null) {
+      user = tokenValidationService.validate(bearerToken(authorization), true)
+          .onErrorResume(throwable -> Mono.just(userDto));
+    }
+
+    return user.flatMap(resolved -> routeRule.permits(resolved.getRoles())
+        ? forward(request, method, path, query, authorization, resolved)
+        : Mono.just(error(request, HttpStatus.FORBIDDEN, "Access denied")));
+  }
+
+  private Mono<BatchSubResponse> forward(BatchSubRequest request, HttpMethod method, String path,
+      String query, String authorization, UserDto userDto) {
+    return batchRouteTable.find(path)
+        .flatMap(route -> {
+          URI uri;
+          try {
+            uri = URI.create(route.baseUrl() + path + query);
+          } catch (IllegalArgumentException e) {
+            return Mono.just(error(request, HttpStatus.BAD_REQUEST, "Invalid path"));
+          }
+          return idempotent(request, route, method, path, authorization,
+              () -> admit(request, route, path, userDto,
+                  () -> send(request, method, uri, authorization, userDto)));
+        })
+        .switchIfEmpty(Mono.fromSupplier(
+            () -> error(request, HttpStatus.NOT_FOUND, "No route for " + path)));
+  }
+
+  /**
+   * Выполняет запрос с {@code idempotencyKey} через хранилище {@link IdempotencyFilter}, если он
+   * есть в фильтрах маршрута. Сохраненный ответ возвращается без повторной проверки ограничений,
+   * как и при обращении к маршруту напрямую.
+   */
+  private Mono<BatchSubResponse> idempotent(BatchSubRequest request, BatchRoute route,
+      HttpMethod method, String path, String authorization,
+      Supplier<Mono<BatchSubResponse>> call) {
+    String idempotencyKey = request.getIdempotencyKey();
+    if (idempotencyKey == null || idempotencyKey.isBlank()
+        || !route.filters().contains(idempotencyFilter.name())) {
+      return call.get();
+    }
+    return idempotencyFilter.execute(authorization, method, path, idempotencyKey,
+            () -> call.get().map(BatchService::toCachedResponse))
+        .map(cachedResponse -> fromCachedResponse(request, cachedResponse))
+        .onErrorResume(TimeoutException.class, e -> Mono.just(error(request,
+            HttpStatus.CONFLICT, "Request with this Idempotency-Key is in progress")));
+  }
+
+  /**
+   * Выполняет запрос с теми же ограничениями, что и цепочка фильтров маршрута: лимит частоты
+   * запросов пользователя, сброс нагрузки, лимит одновременных запросов маршрута и метрика
+   * {@code gateway.route.latency}.
+   */
+  private Mono<BatchSubResponse> admit(BatchSubRequest request, BatchRoute route, String path,
+      UserDto userDto, Supplier<Mono<BatchSubResponse>> call) {
+    Timer.Sample sample = routeMetricsFilter.start();
+    AtomicReference<BatchSubResponse> result = new AtomicReference<>();
+    return Mono.defer(() -> {
+          if (route.filters().contains(userRateLimitFilter.name())
+              && userRateLimitFilter.tryAcquire(route.id(), userDto) > 0) {
+            return Mono.just(error(request, HttpStatus.TOO_MANY_REQUESTS, "Too many requests"));
+          }
+          return loadSheddingFilter.acquire(route.priority(), path)
+              .flatMap(admitted -> admitted
+                  ? limitConcurrency(request, route, call)
+                  .doFinally(signal -> loadSheddingFilter.release())
+                  : Mono.just(error(request, HttpStatus.SERVICE_UNAVAILABLE,
+                      "Gateway is overloaded, try again later")));
+        })
+        .doOnNext(result::set)
+        .doFinally(signal -> routeMetricsFilter.stop(sample, route.id(), status(result.get()),
+            signal));
+  }
+
+  private Mono<BatchSubResponse> limitConcurrency(BatchSubRequest request, BatchRoute route,
+      Supplier<Mono<BatchSubResponse>> call) {
+    if (!route.filters().contains(concurrencyLimitFilter.name())) {
+      return call.get();
+    }
+    if (!concurrencyLimitFilter.tryAcquire(route.id())) {
+      return Mono.just(error(request, HttpStatus.SERVICE_UNAVAILABLE,
+          "Service is overloaded, try again later"));
+    }
+    long start = System.nanoTime();
+    AtomicReference<BatchSubResponse> result = new AtomicReference<>();
+    return call.get()
+        .doOnNext(result::set)
+        .doFinally(signal -> concurrencyLimitFilter.release(route.id(), signal,
+            status(result.get()), System.nanoTime() - start));
+  }
+
+  private Mono<BatchSubResponse> send(BatchSubRequest request, HttpMethod method, URI uri,
+      String authorization, UserDto userDto) {
+    WebClient.RequestBodySpec bodySpec = servicesWebClient.method(method)
+        .uri(uri)
+        .headers(headers -> {
+          headers.set(HttpHeaders.AUTHORIZATION, authorization);
+          trustedHeaderSigner.addUserHeaders(headers, userDto);
+        });
+    WebClient.RequestHeadersSpec<?> spec = bodySpec;
+    if (request.getBody() != null && !request.getBody().isNull()) {
+      spec = bodySpec.contentType(MediaType.APPLICATION_JSON).bodyValue(request.getBody());
+    }
+    return spec.exchangeToMono(response -> toSubResponse(request, response))
+        .onErrorResume(throwable -> {
+          log.warn("Batch request {} {} failed: {}", method, uri, throwable.getMessage());
+          return Mono.just(error(request, HttpStatus.BAD_GATEWAY, "Service unavailable"));
+        });
+  }
+
+  /**
+   * Приводит путь к каноническому виду: убирает пустые сегменты ({@code //}) и отклоняет
+   * сегменты {@code .} и {@code ..}, в том числе закодированные ({@code %2e}), закодированные
+   * разделители и параметры сегментов ({@code ;}), которые сервлет-контейнер отбрасывает,
+   * например {@code ..;x}. Иначе путь, разрешенный правилами {@code gateway.security}, мог бы
+   * после нормализации на стороне сервиса указывать на другой ресурс.
+   *
+   * @param path путь запроса без строки параметров
+   * @return нормализованный путь или {@code null}, если путь недопустим
+   */
+  static String normalizePath(String path) {
+    StringBuilder normalized = new StringBuilder(path.length());
+    for (String segment : path.split("/")) {
+      if (segment.isEmpty()) {
+        continue;
+      }
+      String decoded;
+      try {
+        decoded = UriUtils.decode(segment, StandardCharsets.UTF_8);
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+      if (decoded.equals(".") || decoded.equals("..") || decoded.contains("/")
+          || decoded.contains("\\") || decoded.contains(";")) {
+        return null;
+      }
+      normalized.append('/').append(segment);
+    }
+    if (normalized.isEmpty() || path.endsWith("/")) {
+      normalized.append('/');
+    }
+    return normalized.toString();
+  }
+
+  private static String bearerToken(String authorization) {
+    return authorization.substring(authorization.indexOf(' ') + 1);
+  }
+
+  private static HttpStatusCode status(BatchSubResponse response) {
+    return response == null ? null : HttpStatusCode.valueOf(response.getStatus());
+  }
+
+  private Mono<BatchSubResponse> toSubResponse(BatchSubRequest request, ClientResponse response) {
+    boolean json = response.headers().contentType()
+        .map(MediaType.APPLICATION_JSON::isCompatibleWith)
+        .orElse(false);
+    return response.bodyToMono(String.class)
+        .map(body -> parseBody(body, json))
+        .defaultIfEmpty(objectMapper.nullNode())
+        .map(body -> new BatchSubResponse(request.getId(), response.statusCode().value(), body));
+  }
+
+  private static CachedResponse toCachedResponse(BatchSubResponse response) {
+    return new CachedResponse(response.getStatus(), MediaType.APPLICATION_JSON,
+        response.getBody().toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private BatchSubResponse fromCachedResponse(BatchSubRequest request,
+      CachedResponse cachedResponse) {
+    JsonNode body = objectMapper.nullNode();
+    if (cachedResponse.body().length > 0) {
+      boolean json = cachedResponse.contentType() != null
+          && MediaType.APPLICATION_JSON.isCompatibleWith(cachedResponse.contentType());
+      body = parseBody(new String(cachedResponse.body(), StandardCharsets.UTF_8), json);
+    }
+    return new BatchSubResponse(request.getId(), cachedResponse.status(), body);
+  }
+
+  private JsonNode parseBody(String body, boolean json) {
+    if (json) {
+      try {
+        return objectMapper.readTree(body);
+      } catch (IOException e) {
+        log.debug("Response body is not valid JSON: {}", e.getMessage());
+      }
+    }
+    return TextNode.valueOf(body);
+  }
+
+  private BatchSubResponse error(BatchSubRequest request, HttpStatus status, String message) {
+    return new BatchSubResponse(request.getId(), status.value(),
+        objectMapper.createObjectNode().put("error", message));
+  }
+}
@@ -0,0 +1,174 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Открытые ключи проверки токенов, загружаемые из {@code /auth/.well-known/jwks.json}.
+ * <p>
+ * Ключи обновляются в фоне раз в {@code auth.jwks.refresh-interval}. Если токен подписан
+ * неизвестным ключом (например, сразу после ротации), запускается внеочередное обновление, но не
+ * чаще раза в {@code auth.jwks.min-refresh-interval}; до его завершения такой токен проверяется
+ * Auth-сервисом. Включается параметром {@code auth.jwks.enabled}.
+ */
+@Component
+@Slf4j
+public class JwksKeySource {
+
+  private static final String JWKS_URI = "http://AUTH/auth/.well-known/jwks.json";
+
+  private final WebClient authWebClient;
+  private final boolean enabled;
+  private final Duration refreshInterval;
+  private final long minRefreshIntervalNanos;
+  private final AtomicLong lastRefreshNanos = new AtomicLong(System.nanoTime());
+  private volatile Map<String, PublicKey> keys = Map.of();
+  private Disposable subscription;
+
+  /**
+   * Конструктор для JwksKeySource.
+   *
+   * @param authWebClient      клиент для выполнения запросов к Auth-сервису
+   * @param enabled            признак загрузки открытых ключей
+   * @param refreshInterval    период обновления ключей
+   * @param minRefreshInterval минимальный интервал между внеочередными обновлениями
+   */
+  public JwksKeySource(@Qualifier("authWebClient") WebClient authWebClient,
+      @Value("${auth.jwks.enabled:false}") boolean enabled,
+      @Value("${auth.jwks.refresh-interval:5m}") Duration refreshInterval,
+      @Value("${auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+    this.authWebClient = authWebClient;
+    this.enabled = enabled;
+    this.refreshInterval = refreshInterval;
+    this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+  }
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    subscription = Flux.interval(Duration.ZERO, refreshInterval)
+        .concatMap(tick -> refresh())
+        .subscribe();
+    log.info("JWKS key source is enabled, refresh interval {}", refreshInterval);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+
+  /**
+   * Проверяет, загружаются ли открытые ключи.
+   *
+   * @return true, если токены с асимметричной подписью можно проверять локально
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Возвращает открытый ключ по идентификатору. Для неизвестного ключа запускает внеочередное
+   * обновление набора.
+   *
+   * @param keyId идентификатор ключа из заголовка {@code kid}
+   * @return открытый ключ или {@code null}, если ключ неизвестен
+   */
+  public PublicKey getKey(String keyId) {
+    PublicKey key = keys.get(keyId);
+    if (key == null && enabled) {
+      long now = System.nanoTime();
+      long last = lastRefreshNanos.get();
+      if (now - last >= minRefreshIntervalNanos && lastRefreshNanos.compareAndSet(last, now)) {
+        log.info("Unknown signing key {}, refreshing JWKS", keyId);
+        refresh().subscribe();
+      }
+    }
+    return key;
+  }
+
+  private Mono<Map<String, PublicKey>> refresh() {
+    return authWebClient.get()
+        .uri(JWKS_URI)
+        .retrieve()
+        .bodyToMono(JsonNode.class)
+        .map(JwksKeySource::parseKeys)
+        .doOnNext(loaded -> {
+          keys = loaded;
+          log.debug("Loaded {} JWKS keys", loaded.size());
+        })
+        .onErrorResume(throwable -> {
+          log.warn("Failed to load JWKS: {}", throwable.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  private static Map<String, PublicKey> parseKeys(JsonNode jwks) {
+    Map<String, PublicKey> loaded = new HashMap<>();
+    for (JsonNode jwk : jwks.path("keys")) {
+      String keyId = jwk.path("kid").asText(null);
+      if (keyId == null) {
+        continue;
+      }
+      try {
+        PublicKey key = switch (jwk.path("kty").asText()) {
+          case "RSA" -> KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+              unsigned(jwk.path("n")), unsigned(jwk.path("e"))));
+          case "EC" -> KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+              new ECPoint(unsigned(jwk.path("x")), unsigned(jwk.path("y"))),
+              curve(jwk.path("crv").asText())));
+          default -> null;
+        };
+        if (key != null) {
+          loaded.put(keyId, key);
+        }
+      } catch (GeneralSecurityException | IllegalArgumentException e) {
+        log.warn("Skipping invalid JWK {}: {}", keyId, e.getMessage());
+      }
+    }
+    return Map.copyOf(loaded);
+  }
+
+  private static BigInteger unsigned(JsonNode value) {
+    return new BigInteger(1, Base64.getUrlDecoder().decode(value.asText()));
+  }
+
+  private static ECParameterSpec curve(String name) throws GeneralSecurityException {
+    String stdName = switch (name) {
+      case "P-256" -> "secp256r1";
+      case "P-384" -> "secp384r1";
+      case "P-521" -> "secp521r1";
+      default -> throw new IllegalArgumentException("Unsupported curve " + name);
+    };
+    AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+    parameters.init(new ECGenParameterSpec(stdName));
+    return parameters.getParameterSpec(ECParameterSpec.class);
+  }
+}
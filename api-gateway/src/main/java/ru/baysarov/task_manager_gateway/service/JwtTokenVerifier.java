@@ -0,0 +1,179 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+
+/**
+ * Локальная проверка JWT токенов без обращения к Auth-сервису.
+ * <p>
+ * Проверяет подпись и срок действия токена в процессе шлюза. Токены HS256 проверяются общим
+ * секретом {@code auth.jwt.secret}, токены с асимметричной подписью (RS256, ES256) - открытыми
+ * ключами Auth-сервиса из {@link JwksKeySource}, без общего секрета. Если для токена нет
+ * локального ключа (неизвестный {@code kid} после ротации или JWKS еще не загружен), возвращает
+ * {@code null}, и решение остается за Auth-сервисом. Токен с неверной подписью при известном
+ * ключе отклоняется сразу, без обращения к Auth-сервису.
+ * <p>
+ * Роль из claim {@code role} используется только в течение
+ * {@code auth.local-validation.claims-trusted-for} после выдачи токена ({@code iat}): роль могла
+ * быть изменена после выдачи долгоживущего токена. Для более старых токенов и токенов без
+ * {@code iat} роли не заполняются, и маршруты с правилом роли запрашивают их у Auth-сервиса.
+ * <p>
+ * После перехода Auth-сервиса на асимметричную подпись токены HS* принимаются, пока включен
+ * {@code auth.jwt.accept-hmac} и не наступил момент {@code auth.jwt.accept-hmac-until}; затем они
+ * отклоняются сразу, без обращения к Auth-сервису, независимо от {@code kid}.
+ */
+@Component
+@Slf4j
+public class JwtTokenVerifier {
+
+  private final JwtParser jwtParser;
+  private final Duration claimsTrustedFor;
+  private final boolean acceptHmac;
+  private final Instant acceptHmacUntil;
+
+  /**
+   * Конструктор для JwtTokenVerifier.
+   *
+   * @param enabled          признак включения локальной проверки токенов
+   * @param secret           секрет HS256, совпадающий с {@code jwt.secret} Auth-сервиса; может
+   *                         быть пустым, если Auth-сервис подписывает токены асимметричным ключом
+   * @param jwksKeySource    источник открытых ключей Auth-сервиса
+   * @param claimsTrustedFor время после выдачи токена, в течение которого роль из claims
+   *                         считается актуальной
+   * @param acceptHmac       принимать ли токены HS*
+   * @param acceptHmacUntil  момент в формате ISO-8601, после которого токены HS* не принимаются;
+   *                         пустое значение - без ограничения
+   */
+  public JwtTokenVerifier(@Value("${auth.local-validation.enabled:false}") boolean enabled,
+      @Value("${auth.jwt.secret:}") String secret, JwksKeySource jwksKeySource,
+      @Value("${auth.local-validation.claims-trusted-for:5m}") Duration claimsTrustedFor,
+      @Value("${auth.jwt.accept-hmac:true}") boolean acceptHmac,
+      @Value("${auth.jwt.accept-hmac-until:}") String acceptHmacUntil) {
+    this.claimsTrustedFor = claimsTrustedFor;
+    this.acceptHmac = acceptHmac;
+    this.acceptHmacUntil = acceptHmacUntil.isBlank()
+        ? null : Instant.parse(acceptHmacUntil.trim());
+    Key hmacKey = secret.isBlank() || !acceptHmac
+        ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    if (enabled && (hmacKey != null || jwksKeySource.isEnabled())) {
+      this.jwtParser = Jwts.parserBuilder()
+          .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+              return resolveKey(header, hmacKey, jwksKeySource);
+            }
+          })
+          .build();
+      log.info("Local token validation is enabled");
+    } else {
+      this.jwtParser = null;
+      log.info("Local token validation is disabled, tokens are validated by Auth service");
+    }
+  }
+
+  /**
+   * Проверяет, включена ли локальная проверка токенов.
+   *
+   * @return true, если токены можно проверять локально
+   */
+  public boolean isEnabled() {
+    return jwtParser != null;
+  }
+
+  /**
+   * Проверяет подпись и срок действия токена.
+   *
+   * @param token токен для проверки
+   * @return {@link UserDto}, построенный по claims токена ({@code sub}, а также {@code uid} и
+   * {@code role}, если они есть и роль еще актуальна), или {@code null}, если токен не удалось
+   * проверить локально из-за отсутствия ключа
+   * @throws InvalidTokenException если токен просрочен, поврежден или подпись неверна
+   */
+  public UserDto verify(String token) {
+    if (jwtParser == null) {
+      return null;
+    }
+
+    Claims claims;
+    try {
+      claims = jwtParser.parseClaimsJws(token).getBody();
+    } catch (LocalKeyNotFoundException e) {
+      log.warn("Token signature cannot be verified locally: {}", e.getMessage());
+      return null;
+    } catch (SecurityException e) {
+      throw new InvalidTokenException("Invalid token signature");
+    } catch (ExpiredJwtException e) {
+      throw new InvalidTokenException("Token expired");
+    } catch (JwtException | IllegalArgumentException e) {
+      throw new InvalidTokenException("Invalid token: " + e.getMessage());
+    }
+
+    if (claims.getSubject() == null) {
+      throw new InvalidTokenException("Token has no subject");
+    }
+    Number userId = claims.get("uid", Number.class);
+    String role = claims.get("role", String.class);
+    Instant rolesTrustedUntil = claims.getIssuedAt() == null
+        ? null : claims.getIssuedAt().toInstant().plus(claimsTrustedFor);
+    boolean rolesTrusted = role != null && rolesTrustedUntil != null
+        && rolesTrustedUntil.isAfter(Instant.now());
+    return UserDto.builder()
+        .id(userId == null ? 0 : userId.longValue())
+        .email(claims.getSubject())
+        .roles(rolesTrusted ? List.of(role) : null)
+        .tokenId(claims.getId())
+        .rolesTrustedUntil(rolesTrusted ? rolesTrustedUntil : null)
+        .build();
+  }
+
+  private boolean isHmacAccepted() {
+    return acceptHmac && (acceptHmacUntil == null || Instant.now().isBefore(acceptHmacUntil));
+  }
+
+  private Key resolveKey(JwsHeader header, Key hmacKey, JwksKeySource jwksKeySource) {
+    SignatureAlgorithm algorithm = SignatureAlgorithm.forName(header.getAlgorithm());
+    Key key;
+    if (algorithm.isHmac()) {
+      if (!isHmacAccepted()) {
+        throw new UnsupportedJwtException("HMAC signed tokens are no longer accepted");
+      }
+      key = hmacKey;
+    } else {
+      key = header.getKeyId() == null ? null : jwksKeySource.getKey(header.getKeyId());
+    }
+    if (key == null) {
+      throw new LocalKeyNotFoundException("No local key for " + algorithm + " token, kid "
+          + header.getKeyId());
+    }
+    return key;
+  }
+
+  /**
+   * Для токена нет локального ключа: проверка передается Auth-сервису.
+   */
+  private static final class LocalKeyNotFoundException extends JwtException {
+
+    private LocalKeyNotFoundException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.GatewayAuthenticationException;
+import ru.baysarov.task_manager_gateway.filter.AccessLevel;
+import ru.baysarov.task_manager_gateway.filter.RouteRule;
+import ru.baysarov.task_manager_gateway.filter.RouteValidator;
+
+/**
+ * Аутентификация запросов к собственным эндпоинтам шлюза, которые не проходят через
+ * {@code AuthenticationFilter}.
+ * <p>
+ * Проверяет токен из заголовка Authorization через {@link TokenValidationService} и права доступа
+ * по правилам {@code gateway.security}, так же как фильтр аутентификации для маршрутов. Если
+ * правило требует роль, а роли пользователя после локальной проверки неизвестны, они
+ * запрашиваются у Auth-сервиса; если и это не удалось, доступ запрещается.
+ */
+@Component
+@Slf4j
+public class RequestAuthenticator {
+
+  private final TokenValidationService tokenValidationService;
+  private final RouteValidator routeValidator;
+
+  /**
+   * Конструктор для RequestAuthenticator.
+   *
+   * @param tokenValidationService сервис проверки токенов
+   * @param routeValidator         валидатор маршрутов для проверки прав доступа
+   */
+  public RequestAuthenticator(TokenValidationService tokenValidationService,
+      RouteValidator routeValidator) {
+    this.tokenValidationService = tokenValidationService;
+    this.routeValidator = routeValidator;
+  }
+
+  /**
+   * Проверяет токен запроса и права доступа к пути запроса.
+   *
+   * @param request запрос
+   * @return Mono с {@link UserDto} или {@link GatewayAuthenticationException}
+   */
+  public Mono<UserDto> authenticate(ServerHttpRequest request) {
+    String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (authHeader == null) {
+      log.warn("Authorization header is missing");
+      return Mono.error(new GatewayAuthenticationException(HttpStatus.UNAUTHORIZED,
+          "Missing authorization information"));
+    }
+    String[] parts = authHeader.split(" ");
+    if (parts.length != 2 || !"Bearer".equals(parts[0])) {
+      log.warn("Incorrect authorization structure");
+      return Mono.error(new GatewayAuthenticationException(HttpStatus.UNAUTHORIZED,
+          "Incorrect authorization structure"));
+    }
+
+    RouteRule routeRule = routeValidator.resolve(request);
+    return tokenValidationService.validate(parts[1], routeRule.getAccess() == AccessLevel.ROLE)
+        .onErrorMap(throwable -> !(throwable instanceof GatewayAuthenticationException),
+            throwable -> new GatewayAuthenticationException(HttpStatus.UNAUTHORIZED,
+                "Authenticate error (invalid token or service unavailable)"))
+        .flatMap(userDto -> {
+          if (!routeRule.permits(userDto.getRoles())) {
+            log.warn("Access denied for user {} to {}", userDto.getEmail(), request.getPath());
+            return Mono.error(
+                new GatewayAuthenticationException(HttpStatus.FORBIDDEN, "Access denied"));
+          }
+          return Mono.just(userDto);
+        });
+  }
+}
@@ -0,0 +1,131 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.TaskDetailsDto;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.dto.UserSummaryDto;
+
+/**
+ * Сервис агрегации данных о задаче.
+ * <p>
+ * Получает задачу из TASK-MANAGEMENT, собирает идентификаторы автора, исполнителя и авторов
+ * записей времени, убирает повторы и запрашивает этих пользователей в AUTH одним пакетным
+ * запросом.
+ */
+@Service
+@Slf4j
+public class TaskDetailsService {
+
+  private final WebClient servicesWebClient;
+  private final WebClient authWebClient;
+  private final TrustedHeaderSigner trustedHeaderSigner;
+
+  /**
+   * Конструктор для TaskDetailsService.
+   *
+   * @param servicesWebClient   клиент для запросов к TASK-MANAGEMENT
+   * @param authWebClient       клиент для запросов к AUTH
+   * @param trustedHeaderSigner компонент формирования подписанных заголовков пользователя
+   */
+  public TaskDetailsService(@Qualifier("servicesWebClient") WebClient servicesWebClient,
+      @Qualifier("authWebClient") WebClient authWebClient,
+      TrustedHeaderSigner trustedHeaderSigner) {
+    this.servicesWebClient = servicesWebClient;
+    this.authWebClient = authWebClient;
+    this.trustedHeaderSigner = trustedHeaderSigner;
+  }
+
+  /**
+   * Возвращает задачу вместе с упомянутыми в ней пользователями.
+   *
+   * @param taskId        идентификатор задачи
+   * @param authorization значение заголовка Authorization исходного запроса
+   * @param userDto       пользователь, выполняющий запрос
+   * @return Mono с {@link TaskDetailsDto}; ошибки TASK-MANAGEMENT передаются как
+   *     {@link WebClientResponseException}
+   */
+  public Mono<TaskDetailsDto> getTaskDetails(int taskId, String authorization, UserDto userDto) {
+    return servicesWebClient.get()
+        .uri("http://TASK-MANAGEMENT/api/v1/tasks/{id}", taskId)
+        .headers(headers -> {
+          headers.set(HttpHeaders.AUTHORIZATION, authorization);
+          trustedHeaderSigner.addUserHeaders(headers, userDto);
+        })
+        .retrieve()
+        .bodyToMono(JsonNode.class)
+        .flatMap(task -> resolveUsers(referencedUserIds(task))
+            .map(users -> new TaskDetailsDto(task, users)));
+  }
+
+  /**
+   * Собирает идентификаторы пользователей, упомянутых в задаче, без повторов.
+   *
+   * @param task задача в виде JSON
+   * @return идентификаторы в порядке первого упоминания
+   */
+  private static Set<Integer> referencedUserIds(JsonNode task) {
+    Set<Integer> userIds = new LinkedHashSet<>();
+    addUserId(userIds, task.get("authorId"));
+    addUserId(userIds, task.get("assigneeId"));
+    JsonNode timeEntries = task.get("timeEntries");
+    if (timeEntries != null && timeEntries.isArray()) {
+      for (JsonNode timeEntry : timeEntries) {
+        addUserId(userIds, timeEntry.get("userId"));
+      }
+    }
+    return userIds;
+  }
+
+  private static void addUserId(Set<Integer> userIds, JsonNode userId) {
+    if (userId != null && userId.canConvertToInt()) {
+      userIds.add(userId.intValue());
+    }
+  }
+
+  /**
+   * Запрашивает пользователей в AUTH одним пакетным запросом. Не найденные пользователи в
+   * результат не попадают.
+   *
+   * @param userIds идентификаторы пользователей
+   * @return Mono с пользователями по идентификатору в порядке первого упоминания
+   */
+  private Mono<Map<Integer, UserSummaryDto>> resolveUsers(Set<Integer> userIds) {
+    if (userIds.isEmpty()) {
+      return Mono.just(Map.of());
+    }
+    return authWebClient.post()
+        .uri("http://AUTH/user/batch/ids")
+        .bodyValue(Map.of("ids", userIds))
+        .retrieve()
+        .bodyToMono(new ParameterizedTypeReference<List<UserSummaryDto>>() {
+        })
+        .map(users -> {
+          Map<Integer, UserSummaryDto> found = new HashMap<>();
+          users.forEach(user -> found.put(user.getId(), user));
+          Map<Integer, UserSummaryDto> ordered = new LinkedHashMap<>();
+          for (Integer userId : userIds) {
+            UserSummaryDto user = found.get(userId);
+            if (user != null) {
+              ordered.put(userId, user);
+            } else {
+              log.warn("User with id {} referenced by task was not found", userId);
+            }
+          }
+          return ordered;
+        });
+  }
+}
@@ -0,0 +1,190 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import ru.baysarov.task_manager_gateway.dto.TokenBatchRequest;
+import ru.baysarov.task_manager_gateway.dto.TokenValidationResult;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+import ru.baysarov.task_manager_gateway.exception.TokenBatchQueueFullException;
+
+/**
+ * Пакетная проверка токенов через Auth-сервис.
+ * <p>
+ * Собирает проверки, поступившие в течение {@code auth.batching.window}, и отправляет их одним
+ * запросом {@code POST /auth/validateTokens}. Пакет отправляется раньше, если набрано
+ * {@code auth.batching.max-size} токенов. Включается параметром {@code auth.batching.enabled}.
+ * <p>
+ * Очередь ожидающих проверок ограничена {@code auth.batching.queue-capacity}: при ее переполнении
+ * проверка сразу завершается ошибкой, а не ждет; одновременные постановки в очередь ждут друг
+ * друга не дольше {@link #EMIT_TIMEOUT}. Пакеты запрашиваются из очереди с учетом обратного
+ * давления, поэтому при {@code auth.batching.max-concurrent-batches} выполняющихся пакетах токены
+ * копятся в очереди, а не теряются. Ошибка пакета завершает только проверки этого пакета.
+ * Проверки, от которых вызывающий отказался до отправки пакета, в пакет не включаются.
+ */
+@Component
+@Slf4j
+public class TokenBatchValidator {
+
+  private static final ParameterizedTypeReference<List<TokenValidationResult>> RESULTS_TYPE =
+      new ParameterizedTypeReference<>() {
+      };
+
+  /**
+   * Максимальное время ожидания, пока очередь занята другим потоком.
+   */
+  private static final Duration EMIT_TIMEOUT = Duration.ofMillis(10);
+
+  private final WebClient authWebClient;
+  private final boolean enabled;
+  private final Duration window;
+  private final int maxSize;
+  private final int maxConcurrentBatches;
+  private final Sinks.Many<PendingValidation> pendingValidations;
+  private Disposable subscription;
+
+  /**
+   * Конструктор для TokenBatchValidator.
+   *
+   * @param authWebClient        клиент для выполнения запросов к Auth-сервису
+   * @param enabled              признак включения пакетной проверки
+   * @param window               время накопления пакета
+   * @param maxSize              максимальный размер пакета
+   * @param maxConcurrentBatches максимальное количество одновременно выполняющихся пакетов
+   * @param queueCapacity        максимальное количество проверок, ожидающих отправки
+   */
+  public TokenBatchValidator(@Qualifier("authWebClient") WebClient authWebClient,
+      @Value("${auth.batching.enabled:false}") boolean enabled,
+      @Value("${auth.batching.window:5ms}") Duration window,
+      @Value("${auth.batching.max-size:100}") int maxSize,
+      @Value("${auth.batching.max-concurrent-batches:8}") int maxConcurrentBatches,
+      @Value("${auth.batching.queue-capacity:10000}") int queueCapacity) {
+    this.authWebClient = authWebClient;
+    this.enabled = enabled;
+    this.window = window;
+    this.maxSize = maxSize;
+    this.maxConcurrentBatches = maxConcurrentBatches;
+    this.pendingValidations = Sinks.many().unicast()
+        .onBackpressureBuffer(Queues.<PendingValidation>get(queueCapacity).get());
+  }
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    subscription = pendingValidations.asFlux()
+        .bufferTimeout(maxSize, window, true)
+        .flatMap(this::validateBatch, maxConcurrentBatches)
+        .subscribe();
+    log.info("Token batch validation is enabled: window {}, max size {}", window, maxSize);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+
+  /**
+   * Проверяет, включена ли пакетная проверка токенов.
+   *
+   * @return true, если проверки объединяются в пакеты
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Ставит токен в очередь на пакетную проверку.
+   *
+   * @param token токен для проверки
+   * @return Mono с {@link UserDto}, {@link InvalidTokenException}, если токен недействителен, или
+   *     {@link TokenBatchQueueFullException}, если очередь проверок переполнена
+   */
+  public Mono<UserDto> validate(String token) {
+    return Mono.create(sink -> {
+      PendingValidation pending = new PendingValidation(token, sink, new AtomicBoolean());
+      sink.onCancel(() -> pending.cancelled().set(true));
+      Sinks.EmitFailureHandler contention = Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT);
+      Sinks.EmitResult result;
+      do {
+        result = pendingValidations.tryEmitNext(pending);
+      } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED
+          && contention.onEmitFailure(SignalType.ON_NEXT, result));
+      if (result.isFailure()) {
+        log.warn("Token batch queue is full ({}), rejecting validation", result);
+        sink.error(new TokenBatchQueueFullException("Token batch queue is full"));
+      }
+    });
+  }
+
+  /**
+   * Отправляет пакет токенов в Auth-сервис и завершает ожидающие проверки.
+   *
+   * @param batch пакет ожидающих проверок
+   * @return Mono, завершающийся после обработки ответа
+   */
+  private Mono<Void> validateBatch(List<PendingValidation> pendingBatch) {
+    List<PendingValidation> batch = pendingBatch.stream()
+        .filter(pending -> !pending.cancelled().get())
+        .toList();
+    if (batch.isEmpty()) {
+      return Mono.empty();
+    }
+    return Mono.defer(() -> {
+          List<String> tokens = batch.stream().map(PendingValidation::token).toList();
+          return authWebClient.post()
+              .uri("http://AUTH/auth/validateTokens")
+              .bodyValue(new TokenBatchRequest(tokens))
+              .retrieve()
+              .bodyToMono(RESULTS_TYPE);
+        })
+        .defaultIfEmpty(List.of())
+        .doOnNext(results -> completeBatch(batch, results))
+        .then()
+        .onErrorResume(throwable -> {
+          log.error("Batch token validation failed: {}", throwable.getMessage());
+          batch.forEach(pending -> pending.sink().error(throwable));
+          return Mono.empty();
+        });
+  }
+
+  private void completeBatch(List<PendingValidation> batch, List<TokenValidationResult> results) {
+    for (int i = 0; i < batch.size(); i++) {
+      MonoSink<UserDto> sink = batch.get(i).sink();
+      TokenValidationResult result = i < results.size() ? results.get(i) : null;
+      if (result != null && result.isValid()) {
+        sink.success(result.getUser());
+      } else {
+        sink.error(new InvalidTokenException(
+            result == null ? "Missing validation result" : result.getError()));
+      }
+    }
+  }
+
+  /**
+   * Проверка, ожидающая отправки. Флаг {@code cancelled} выставляется, если вызывающий отказался
+   * от результата.
+   */
+  private record PendingValidation(String token, MonoSink<UserDto> sink,
+                                   AtomicBoolean cancelled) {
+
+  }
+}
@@ -0,0 +1,159 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+
+/**
+ * Ограниченный по размеру кэш проверенных токенов.
+ * <p>
+ * Ключом служит SHA-256 хэш токена, поэтому сами токены в памяти не хранятся. Запись живет не
+ * дольше срока действия токена ({@code exp}) и не дольше {@code auth.token-cache.max-ttl}, а
+ * запись с ролями из claims токена - не дольше {@link UserDto#getRolesTrustedUntil()}.
+ * Статистика попаданий, промахов и вытеснений публикуется в actuator как метрики
+ * {@code cache.*} с тегом {@code cache=token-validation}.
+ */
+@Component
+@Slf4j
+public class TokenCache {
+
+  private final Cache<String, CachedUser> cache;
+  private final ObjectMapper objectMapper;
+  private final Duration maxTtl;
+
+  /**
+   * Конструктор для TokenCache.
+   *
+   * @param maximumSize   максимальное количество токенов в кэше
+   * @param maxTtl        максимальное время жизни записи
+   * @param objectMapper  ObjectMapper для чтения claims токена
+   * @param meterRegistry реестр метрик
+   */
+  public TokenCache(@Value("${auth.token-cache.maximum-size:10000}") long maximumSize,
+      @Value("${auth.token-cache.max-ttl:5m}") Duration maxTtl,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
+    this.objectMapper = objectMapper;
+    this.maxTtl = maxTtl;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new Expiry<String, CachedUser>() {
+          @Override
+          public long expireAfterCreate(String key, CachedUser value, long currentTime) {
+            return value.ttl().toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, CachedUser value, long currentTime,
+              long currentDuration) {
+            return value.ttl().toNanos();
+          }
+
+          @Override
+          public long expireAfterRead(String key, CachedUser value, long currentTime,
+              long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "token-validation");
+  }
+
+  /**
+   * Возвращает пользователя для ранее проверенного токена.
+   *
+   * @param token токен
+   * @return {@link UserDto} или {@code null}, если токена нет в кэше
+   */
+  public UserDto get(String token) {
+    CachedUser cachedUser = cache.getIfPresent(hash(token));
+    return cachedUser == null ? null : cachedUser.userDto();
+  }
+
+  /**
+   * Сохраняет результат успешной проверки токена. Если у пользователя не задан идентификатор
+   * токена (например, токен проверен Auth-сервисом), он берется из claim {@code jti}, чтобы
+   * отзыв токена проверялся и при попадании в кэш.
+   *
+   * @param token   проверенный токен
+   * @param userDto пользователь, которому принадлежит токен
+   */
+  public void put(String token, UserDto userDto) {
+    JsonNode claims = readClaims(token);
+    Duration ttl = timeToExpiration(claims);
+    if (userDto.getRolesTrustedUntil() != null) {
+      Duration trusted = Duration.between(Instant.now(), userDto.getRolesTrustedUntil());
+      ttl = trusted.compareTo(ttl) < 0 ? trusted : ttl;
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      return;
+    }
+    if (userDto.getTokenId() == null && claims.hasNonNull("jti")) {
+      userDto.setTokenId(claims.get("jti").asText());
+    }
+    cache.put(hash(token), new CachedUser(userDto, ttl));
+  }
+
+  /**
+   * Читает claims токена. Токен к этому моменту уже проверен, поэтому подпись повторно не
+   * проверяется.
+   *
+   * @param token токен
+   * @return claims токена или {@code null}, если их не удалось прочитать
+   */
+  private JsonNode readClaims(String token) {
+    try {
+      String[] parts = token.split("\\.");
+      return objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+    } catch (Exception e) {
+      log.warn("Unable to read token claims, token is not cached: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Вычисляет время жизни записи по claim {@code exp}.
+   *
+   * @param claims claims токена
+   * @return время жизни записи, ограниченное {@code maxTtl}
+   */
+  private Duration timeToExpiration(JsonNode claims) {
+    if (claims == null) {
+      return Duration.ZERO;
+    }
+    if (!claims.hasNonNull("exp")) {
+      return maxTtl;
+    }
+    Duration ttl = Duration.between(Instant.now(), Instant.ofEpochSecond(claims.get("exp").asLong()));
+    return ttl.compareTo(maxTtl) < 0 ? ttl : maxTtl;
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  private record CachedUser(UserDto userDto, Duration ttl) {
+
+  }
+}
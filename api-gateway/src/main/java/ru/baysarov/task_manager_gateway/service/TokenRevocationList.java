@@ -0,0 +1,164 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Список отозванных токенов.
+ * <p>
+ * Идентификаторы ({@code jti}) отозванных токенов хранятся в точной таблице вместе со сроком
+ * действия токена и в фильтре Блума. Проверка сначала обращается к фильтру: для неотозванного
+ * токена, а это почти все проверки, фильтр отвечает «нет» за несколько чтений из массива.
+ * Положительный ответ фильтра подтверждается таблицей, поэтому действительный токен никогда не
+ * считается отозванным. Записи с истекшим сроком удаляются, а фильтр перестраивается при
+ * добавлении, не чаще раза в {@code auth.revocation.rebuild-interval} или при заполнении.
+ * <p>
+ * Список наполняется из топика {@code token_revoked}, который публикует Auth-сервис (см.
+ * {@link TokenRevocationListener}), и проверяется {@link TokenValidationService} при каждой
+ * проверке токена, в том числе при попадании в {@link TokenCache}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+  private final int expectedInsertions;
+  private final double falsePositiveRate;
+  private final long rebuildIntervalMillis;
+  private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+  private volatile BloomFilter filter;
+  private long lastRebuildMillis;
+
+  /**
+   * Конструктор для TokenRevocationList.
+   *
+   * @param expectedInsertions ожидаемое количество одновременно отозванных токенов
+   * @param falsePositiveRate  допустимая доля ложных срабатываний фильтра
+   * @param rebuildInterval    минимальный интервал между перестроениями фильтра
+   */
+  public TokenRevocationList(
+      @Value("${auth.revocation.expected-insertions:100000}") int expectedInsertions,
+      @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+      @Value("${auth.revocation.rebuild-interval:10m}") Duration rebuildInterval) {
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    this.rebuildIntervalMillis = rebuildInterval.toMillis();
+    this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.lastRebuildMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Проверяет, отозван ли токен.
+   *
+   * @param tokenId идентификатор токена ({@code jti}) или {@code null}
+   * @return true, если токен отозван
+   */
+  public boolean isRevoked(String tokenId) {
+    if (tokenId == null || !filter.mightContain(tokenId)) {
+      return false;
+    }
+    return revoked.containsKey(tokenId);
+  }
+
+  /**
+   * Добавляет токен в список отозванных.
+   *
+   * @param tokenId         идентификатор токена ({@code jti})
+   * @param expiresAtMillis срок действия токена, после которого запись можно удалить
+   */
+  public synchronized void revoke(String tokenId, long expiresAtMillis) {
+    long now = System.currentTimeMillis();
+    if (expiresAtMillis <= now || revoked.put(tokenId, expiresAtMillis) != null) {
+      return;
+    }
+    if (now - lastRebuildMillis >= rebuildIntervalMillis || revoked.size() > filter.capacity) {
+      rebuild(now);
+    } else {
+      filter.put(tokenId);
+    }
+  }
+
+  /**
+   * Возвращает количество отозванных токенов с неистекшим сроком действия.
+   *
+   * @return размер списка
+   */
+  public int size() {
+    return revoked.size();
+  }
+
+  private void rebuild(long now) {
+    revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revoked.size() * 2),
+        falsePositiveRate);
+    revoked.keySet().forEach(rebuilt::put);
+    filter = rebuilt;
+    lastRebuildMillis = now;
+    log.debug("Token revocation filter rebuilt, {} revoked tokens", revoked.size());
+  }
+
+  /**
+   * Фильтр Блума над строками. Индексы битов вычисляются двойным хэшированием 64-битного
+   * FNV-1a хэша строки.
+   */
+  private static final class BloomFilter {
+
+    private final int capacity;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+
+    BloomFilter(int capacity, double falsePositiveRate) {
+      double ln2 = Math.log(2);
+      long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+      this.capacity = capacity;
+      this.bitCount = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 64);
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+      this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    void put(String value) {
+      long hash = hash(value);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= hashCount; i++) {
+        int index = index(h1 + i * h2);
+        long mask = 1L << index;
+        bits.getAndAccumulate(index >>> 6, mask, (word, bit) -> word | bit);
+      }
+    }
+
+    boolean mightContain(String value) {
+      long hash = hash(value);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= hashCount; i++) {
+        int index = index(h1 + i * h2);
+        if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int index(int combinedHash) {
+      return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String value) {
+      long hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < value.length(); i++) {
+        hash ^= value.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      return hash;
+    }
+  }
+}
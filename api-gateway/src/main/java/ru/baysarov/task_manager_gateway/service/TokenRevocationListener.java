@@ -0,0 +1,46 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Service;
+import ru.baysarov.task_manager_gateway.config.KafkaPartitionAssigner;
+
+/**
+ * Слушатель топика {@code token_revoked}.
+ * <p>
+ * Ключ сообщения - идентификатор токена ({@code jti}), значение - срок действия токена в
+ * миллисекундах. Каждый экземпляр читает все разделы топика с начала без группы потребителей
+ * (см. {@link KafkaPartitionAssigner}), поэтому после запуска список отозванных токенов
+ * восстанавливается из сжатого топика.
+ */
+@Service
+@Slf4j
+public class TokenRevocationListener {
+
+  /** Топик отозванных токенов. */
+  public static final String TOKEN_REVOKED_TOPIC = "token_revoked";
+
+  private final TokenRevocationList tokenRevocationList;
+
+  public TokenRevocationListener(TokenRevocationList tokenRevocationList,
+      KafkaPartitionAssigner kafkaPartitionAssigner) {
+    this.tokenRevocationList = tokenRevocationList;
+    kafkaPartitionAssigner.listen(TOKEN_REVOKED_TOPIC, this::onTokenRevoked);
+  }
+
+  /**
+   * Обрабатывает событие отзыва токена.
+   *
+   * @param record сообщение с идентификатором и сроком действия токена
+   */
+  public void onTokenRevoked(ConsumerRecord<String, String> record) {
+    if (record.key() == null || record.value() == null) {
+      return;
+    }
+    try {
+      tokenRevocationList.revoke(record.key(), Long.parseLong(record.value()));
+    } catch (NumberFormatException e) {
+      log.warn("Skipping malformed token revocation {}: {}", record.key(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+import ru.baysarov.task_manager_gateway.exception.TokenBatchQueueFullException;
+import ru.baysarov.task_manager_gateway.resilience.HedgedRequestExecutor;
+
+/**
+ * Сервис проверки токенов авторизации.
+ * <p>
+ * Сначала ищет токен в {@link TokenCache}, затем пытается проверить его локально через
+ * {@link JwtTokenVerifier}. Обращение к Auth-сервису выполняется только если локальная проверка
+ * выключена или не дала результата. Успешные результаты сохраняются в кэш.
+ * <p>
+ * Одновременные проверки одного и того же токена через Auth-сервис объединяются в один запрос:
+ * все ожидающие получают общий результат, а ошибки не запоминаются. Медленные и неудачные
+ * обращения дублируются и повторяются через {@link HedgedRequestExecutor}.
+ * <p>
+ * Каждый результат, в том числе взятый из кэша, сверяется с {@link TokenRevocationList}, поэтому
+ * отозванный токен перестает приниматься сразу после получения события отзыва.
+ */
+@Service
+@Slf4j
+public class TokenValidationService {
+
+  private final WebClient authWebClient;
+  private final JwtTokenVerifier jwtTokenVerifier;
+  private final TokenCache tokenCache;
+  private final TokenBatchValidator tokenBatchValidator;
+  private final HedgedRequestExecutor hedgedRequestExecutor;
+  private final TokenRevocationList tokenRevocationList;
+  private final ConcurrentMap<String, Mono<UserDto>> inFlightValidations =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Конструктор для TokenValidationService.
+   *
+   * @param authWebClient         клиент для выполнения запросов к Auth-сервису
+   * @param jwtTokenVerifier      компонент локальной проверки токенов
+   * @param tokenCache            кэш проверенных токенов
+   * @param tokenBatchValidator   компонент пакетной проверки токенов
+   * @param hedgedRequestExecutor компонент дублирования и повтора запросов к Auth-сервису
+   * @param tokenRevocationList   список отозванных токенов
+   */
+  public TokenValidationService(@Qualifier("authWebClient") WebClient authWebClient,
+      JwtTokenVerifier jwtTokenVerifier, TokenCache tokenCache,
+      TokenBatchValidator tokenBatchValidator, HedgedRequestExecutor hedgedRequestExecutor,
+      TokenRevocationList tokenRevocationList) {
+    this.authWebClient = authWebClient;
+    this.jwtTokenVerifier = jwtTokenVerifier;
+    this.tokenCache = tokenCache;
+    this.tokenBatchValidator = tokenBatchValidator;
+    this.hedgedRequestExecutor = hedgedRequestExecutor;
+    this.tokenRevocationList = tokenRevocationList;
+  }
+
+  /**
+   * Проверяет токен и возвращает информацию о пользователе.
+   *
+   * @param token токен для проверки
+   * @return Mono с {@link UserDto} или ошибкой, если токен недействителен
+   */
+  public Mono<UserDto> validate(String token) {
+    UserDto cachedUser = tokenCache.get(token);
+    if (cachedUser != null) {
+      return checkNotRevoked(cachedUser);
+    }
+
+    if (jwtTokenVerifier.isEnabled()) {
+      try {
+        UserDto userDto = jwtTokenVerifier.verify(token);
+        if (userDto != null) {
+          tokenCache.put(token, userDto);
+          return checkNotRevoked(userDto);
+        }
+      } catch (InvalidTokenException e) {
+        return Mono.error(e);
+      }
+      log.debug("Falling back to Auth service for token validation");
+    }
+    return inFlightValidations.computeIfAbsent(token, this::sharedRemoteValidation)
+        .flatMap(this::checkNotRevoked);
+  }
+
+  /**
+   * Проверяет токен и при необходимости гарантирует, что роли пользователя известны. Локальная
+   * проверка может вернуть пользователя без ролей (в токене нет ролей или им нельзя доверять);
+   * в этом случае роли запрашиваются у Auth-сервиса, а результат заменяет запись в кэше.
+   *
+   * @param token         токен для проверки
+   * @param rolesRequired нужны ли роли пользователя для проверки прав доступа
+   * @return Mono с {@link UserDto} или ошибкой, если токен недействителен; роли могут
+   *     отсутствовать, только если их не вернул и Auth-сервис
+   */
+  public Mono<UserDto> validate(String token, boolean rolesRequired) {
+    Mono<UserDto> result = validate(token);
+    if (!rolesRequired) {
+      return result;
+    }
+    return result.flatMap(userDto -> {
+      if (userDto.getRoles() != null) {
+        return Mono.just(userDto);
+      }
+      log.debug("Roles are unknown for user {}, asking Auth service", userDto.getEmail());
+      return inFlightValidations.computeIfAbsent(token, this::sharedRemoteValidation)
+          .flatMap(this::checkNotRevoked);
+    });
+  }
+
+  private Mono<UserDto> checkNotRevoked(UserDto userDto) {
+    if (tokenRevocationList.isRevoked(userDto.getTokenId())) {
+      return Mono.error(new InvalidTokenException("Token revoked"));
+    }
+    return Mono.just(userDto);
+  }
+
+  /**
+   * Создает общий для всех одновременных запросов Mono проверки токена через Auth-сервис. После
+   * завершения (успешного или с ошибкой) Mono удаляется из списка выполняющихся проверок, поэтому
+   * следующий запрос после ошибки снова обратится к Auth-сервису.
+   *
+   * @param token токен для проверки
+   * @return разделяемый Mono с {@link UserDto}
+   */
+  private Mono<UserDto> sharedRemoteValidation(String token) {
+    AtomicReference<Mono<UserDto>> self = new AtomicReference<>();
+    Mono<UserDto> shared = validateRemotely(token)
+        .doOnNext(userDto -> tokenCache.put(token, userDto))
+        .doFinally(signal -> inFlightValidations.remove(token, self.get()))
+        .share();
+    self.set(shared);
+    return shared;
+  }
+
+  /**
+   * Проверяет токен через Auth-сервис с дублированием медленных и повтором неудачных попыток.
+   *
+   * @param token токен для проверки
+   * @return Mono с {@link UserDto}
+   */
+  private Mono<UserDto> validateRemotely(String token) {
+    return hedgedRequestExecutor.execute(() -> callAuthService(token),
+        TokenValidationService::isRetryable);
+  }
+
+  /**
+   * Выполняет одну попытку проверки токена через Auth-сервис: пакетом через
+   * {@link TokenBatchValidator}, если пакетная проверка включена, иначе отдельным запросом.
+   *
+   * @param token токен для проверки
+   * @return Mono с {@link UserDto}
+   */
+  private Mono<UserDto> callAuthService(String token) {
+    if (tokenBatchValidator.isEnabled()) {
+      return tokenBatchValidator.validate(token);
+    }
+    return authWebClient.get()
+        .uri("http://AUTH/auth/validateToken?token={token}", token)
+        .retrieve()
+        .bodyToMono(UserDto.class);
+  }
+
+  /**
+   * Определяет, имеет ли смысл повторять проверку после ошибки. Недействительный токен, ответы
+   * 4xx и переполнение очереди пакетной проверки не повторяются, сбои сети, таймауты и ответы
+   * 5xx — повторяются.
+   *
+   * @param throwable ошибка попытки
+   * @return true, если ошибку можно повторить
+   */
+  private static boolean isRetryable(Throwable throwable) {
+    if (throwable instanceof InvalidTokenException
+        || throwable instanceof TokenBatchQueueFullException) {
+      return false;
+    }
+    if (throwable instanceof WebClientResponseException responseException) {
+      return responseException.getStatusCode().is5xxServerError();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,123 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+
+/**
+ * Формирует подписанные заголовки с информацией о пользователе для нижестоящих сервисов.
+ * <p>
+ * Шлюз передает email, идентификатор и роли пользователя, а также время и HMAC-SHA256 подпись этих
+ * значений. Сервисы, знающие общий секрет {@code trusted-headers.secret}, используют эти данные
+ * напрямую, не обращаясь в Auth-сервис. Если идентификатор или роли неизвестны, подписываются
+ * только email и время: сервисы отклоняют email без подписи. Заголовки {@code X-auth-*},
+ * пришедшие от клиента, всегда удаляются.
+ */
+@Component
+@Slf4j
+public class TrustedHeaderSigner {
+
+  public static final String HEADER_PREFIX = "X-auth-";
+  public static final String USER_EMAIL_HEADER = "X-auth-user-email";
+  public static final String USER_ID_HEADER = "X-auth-user-id";
+  public static final String USER_ROLES_HEADER = "X-auth-user-roles";
+  public static final String TIMESTAMP_HEADER = "X-auth-timestamp";
+  public static final String SIGNATURE_HEADER = "X-auth-signature";
+
+  private final Mac prototype;
+
+  /**
+   * Конструктор для TrustedHeaderSigner.
+   *
+   * @param secret общий с сервисами секрет для подписи заголовков
+   */
+  public TrustedHeaderSigner(@Value("${trusted-headers.secret:}") String secret) {
+    if (secret.isBlank()) {
+      this.prototype = null;
+      log.warn("trusted-headers.secret is not set, user id and roles are not forwarded");
+      return;
+    }
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      this.prototype = mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to initialize trusted headers signer", e);
+    }
+  }
+
+  /**
+   * Удаляет из запроса заголовки {@code X-auth-*}, пришедшие от клиента.
+   *
+   * @param builder builder изменяемого запроса
+   */
+  public void removeClientHeaders(ServerHttpRequest.Builder builder) {
+    builder.headers(headers -> headers.keySet().stream()
+        .filter(name -> name.regionMatches(true, 0, HEADER_PREFIX, 0, HEADER_PREFIX.length()))
+        .toList()
+        .forEach(headers::remove));
+  }
+
+  /**
+   * Добавляет в запрос заголовки с информацией о пользователе и их подписью.
+   *
+   * @param builder builder изменяемого запроса
+   * @param userDto проверенный пользователь
+   */
+  public void addUserHeaders(ServerHttpRequest.Builder builder, UserDto userDto) {
+    builder.headers(headers -> addUserHeaders(headers, userDto));
+  }
+
+  /**
+   * Добавляет заголовки с информацией о пользователе и их подписью в запрос, который шлюз
+   * отправляет сам (например, при агрегации ответов нескольких сервисов).
+   *
+   * @param headers заголовки запроса
+   * @param userDto проверенный пользователь
+   */
+  public void addUserHeaders(HttpHeaders headers, UserDto userDto) {
+    headers.set(USER_EMAIL_HEADER, userDto.getEmail());
+    if (prototype == null) {
+      return;
+    }
+
+    String timestamp = String.valueOf(Instant.now().getEpochSecond());
+    headers.set(TIMESTAMP_HEADER, timestamp);
+    if (userDto.getId() <= 0 || userDto.getRoles() == null) {
+      headers.set(SIGNATURE_HEADER, sign(userDto.getEmail(), timestamp));
+      return;
+    }
+
+    String userId = String.valueOf(userDto.getId());
+    String roles = String.join(",", userDto.getRoles());
+    headers.set(USER_ID_HEADER, userId);
+    headers.set(USER_ROLES_HEADER, roles);
+    headers.set(SIGNATURE_HEADER, sign(userDto.getEmail(), userId, roles, timestamp));
+  }
+
+  /**
+   * Вычисляет подпись значений заголовков.
+   *
+   * @param values значения в порядке email, идентификатор, роли через запятую, время в секундах;
+   *               если идентификатор или роли неизвестны - только email и время
+   * @return подпись в Base64
+   */
+  private String sign(String... values) {
+    String payload = String.join("\n", values);
+    try {
+      Mac mac = (Mac) prototype.clone();
+      return Base64.getEncoder().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Unable to sign trusted headers", e);
+    }
+  }
+}
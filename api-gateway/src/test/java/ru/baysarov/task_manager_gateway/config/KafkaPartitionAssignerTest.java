@@ -0,0 +1,97 @@
+package ru.baysarov.task_manager_gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+class KafkaPartitionAssignerTest {
+
+  private static final String TOPIC = "compacted";
+
+  private ConcurrentKafkaListenerContainerFactory<String, String> containerFactory;
+  private Consumer<String, String> consumer;
+  private KafkaPartitionAssigner assigner;
+  private final MessageListener<String, String> listener = record -> {
+  };
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    containerFactory = mock(ConcurrentKafkaListenerContainerFactory.class);
+    ConsumerFactory<String, String> consumerFactory = mock(ConsumerFactory.class);
+    consumer = mock(Consumer.class);
+    doReturn(consumerFactory).when(containerFactory).getConsumerFactory();
+    when(consumerFactory.createConsumer()).thenReturn(consumer);
+    when(containerFactory.createContainer(any(TopicPartitionOffset[].class)))
+        .thenAnswer(invocation -> mock(ConcurrentMessageListenerContainer.class));
+    assigner = new KafkaPartitionAssigner(containerFactory, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void assign_ShouldListenOnlyToNewPartitions_WhenPartitionsAreAdded() {
+    Set<Integer> assigned = new HashSet<>();
+    when(consumer.partitionsFor(TOPIC, Duration.ofSeconds(10)))
+        .thenReturn(partitions(0), partitions(0, 1, 2));
+
+    assigner.assign(TOPIC, listener, assigned);
+    assigner.assign(TOPIC, listener, assigned);
+
+    verify(containerFactory).createContainer(new TopicPartitionOffset(TOPIC, 0, 0L));
+    verify(containerFactory).createContainer(new TopicPartitionOffset(TOPIC, 1, 0L),
+        new TopicPartitionOffset(TOPIC, 2, 0L));
+    assertEquals(Set.of(0, 1, 2), assigned);
+  }
+
+  @Test
+  void assign_ShouldWaitForPartitions_WhenTopicDoesNotExistYet() {
+    Set<Integer> assigned = new HashSet<>();
+    when(consumer.partitionsFor(TOPIC, Duration.ofSeconds(10)))
+        .thenReturn(List.of(), partitions(0));
+
+    assigner.assign(TOPIC, listener, assigned);
+    verify(containerFactory, never()).createContainer(any(TopicPartitionOffset[].class));
+
+    assigner.assign(TOPIC, listener, assigned);
+    verify(containerFactory).createContainer(new TopicPartitionOffset(TOPIC, 0, 0L));
+  }
+
+  @Test
+  void assign_ShouldRetryLater_WhenKafkaIsUnavailable() {
+    Set<Integer> assigned = new HashSet<>();
+    when(consumer.partitionsFor(TOPIC, Duration.ofSeconds(10)))
+        .thenThrow(new TimeoutException("Kafka is down"))
+        .thenReturn(partitions(0));
+
+    assigner.assign(TOPIC, listener, assigned);
+    verify(containerFactory, never()).createContainer(any(TopicPartitionOffset[].class));
+
+    assigner.assign(TOPIC, listener, assigned);
+    assertEquals(Set.of(0), assigned);
+  }
+
+  private static List<PartitionInfo> partitions(int... numbers) {
+    return Arrays.stream(numbers)
+        .mapToObj(number -> new PartitionInfo(TOPIC, number, null, null, null))
+        .toList();
+  }
+}
@@ -0,0 +1,228 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.baysarov.task_manager_gateway.idempotency.CachedResponse;
+
+class IdempotencyFilterTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private IdempotencyFilter factory;
+  private GatewayFilter filter;
+  private AtomicInteger chainCalls;
+
+  @BeforeEach
+  void setUp() {
+    factory = new IdempotencyFilter(Duration.ofHours(1), 1024 * 1024, 16,
+        Duration.ofSeconds(5), new SimpleMeterRegistry());
+    filter = factory.apply(new IdempotencyFilter.Config());
+    chainCalls = new AtomicInteger();
+  }
+
+  @Test
+  void filter_ShouldReplayStoredResponse_WhenKeyIsRepeated() {
+    MockServerWebExchange first = exchange("key-1");
+    filter.filter(first, respond(HttpStatus.CREATED, "created")).block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1");
+    filter.filter(second, respond(HttpStatus.CREATED, "duplicate")).block(TIMEOUT);
+
+    assertEquals(1, chainCalls.get());
+    assertEquals(HttpStatus.CREATED, second.getResponse().getStatusCode());
+    assertEquals("true", second.getResponse().getHeaders()
+        .getFirst(IdempotencyFilter.REPLAYED_HEADER));
+    assertEquals("created", second.getResponse().getBodyAsString().block(TIMEOUT));
+  }
+
+  @Test
+  void filter_ShouldExecuteRequest_WhenKeyIsDifferent() {
+    filter.filter(exchange("key-1"), respond(HttpStatus.CREATED, "first")).block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-2");
+    filter.filter(second, respond(HttpStatus.CREATED, "second")).block(TIMEOUT);
+
+    assertEquals(2, chainCalls.get());
+    assertNull(second.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  void filter_ShouldNotStoreResponse_WhenServerErrorOccurred() {
+    filter.filter(exchange("key-1"), respond(HttpStatus.SERVICE_UNAVAILABLE, "retry later"))
+        .block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1");
+    filter.filter(second, respond(HttpStatus.CREATED, "created")).block(TIMEOUT);
+
+    assertEquals(2, chainCalls.get());
+    assertEquals(HttpStatus.CREATED, second.getResponse().getStatusCode());
+  }
+
+  @Test
+  void filter_ShouldStreamButNotStoreResponse_WhenBodyIsTooLarge() {
+    String largeBody = "x".repeat(64);
+    MockServerWebExchange first = exchange("key-1");
+    filter.filter(first, respond(HttpStatus.CREATED, largeBody)).block(TIMEOUT);
+
+    filter.filter(exchange("key-1"), respond(HttpStatus.CREATED, largeBody)).block(TIMEOUT);
+
+    assertEquals(largeBody, first.getResponse().getBodyAsString().block(TIMEOUT));
+    assertEquals(2, chainCalls.get());
+  }
+
+  @Test
+  void apply_ShouldRunRightBeforeResponseIsWritten() {
+    assertEquals(NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1,
+        ((Ordered) filter).getOrder());
+  }
+
+  @Test
+  void filter_ShouldStoreResponse_WhenBodyIsWrittenAfterRouting() {
+    GatewayFilterChain routingThenWrite = exchange -> {
+      chainCalls.incrementAndGet();
+      // Как NettyWriteResponseFilter: тело пишется после завершения остальной цепочки.
+      return Mono.delay(Duration.ofMillis(20))
+          .then(Mono.defer(() -> write(exchange.getResponse(), HttpStatus.CREATED, "created")));
+    };
+    filter.filter(exchange("key-1"), routingThenWrite).block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1");
+    filter.filter(second, respond(HttpStatus.CREATED, "duplicate")).block(TIMEOUT);
+
+    assertEquals(1, chainCalls.get());
+    assertEquals("created", second.getResponse().getBodyAsString().block(TIMEOUT));
+  }
+
+  @Test
+  void filter_ShouldExecuteRequest_WhenTokenIsDifferent() {
+    filter.filter(exchange("key-1", "Bearer first"), respond(HttpStatus.CREATED, "first"))
+        .block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1", "Bearer second");
+    filter.filter(second, respond(HttpStatus.CREATED, "second")).block(TIMEOUT);
+
+    assertEquals(2, chainCalls.get());
+    assertEquals("second", second.getResponse().getBodyAsString().block(TIMEOUT));
+  }
+
+  @Test
+  void filter_ShouldNotStoreResponse_WhenGatewayRejectedRequest() {
+    filter.filter(exchange("key-1"), respond(HttpStatus.UNAUTHORIZED, "unauthorized"))
+        .block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1");
+    filter.filter(second, respond(HttpStatus.CREATED, "created")).block(TIMEOUT);
+
+    assertEquals(2, chainCalls.get());
+    assertEquals(HttpStatus.CREATED, second.getResponse().getStatusCode());
+  }
+
+  @Test
+  void filter_ShouldExecuteRequestAgain_WhenNothingWasWritten() {
+    GatewayFilterChain noResponse = exchange -> {
+      chainCalls.incrementAndGet();
+      return Mono.empty();
+    };
+    filter.filter(exchange("key-1"), noResponse).block(TIMEOUT);
+
+    MockServerWebExchange second = exchange("key-1");
+    filter.filter(second, respond(HttpStatus.CREATED, "created")).block(TIMEOUT);
+
+    assertEquals(2, chainCalls.get());
+    assertEquals("created", second.getResponse().getBodyAsString().block(TIMEOUT));
+  }
+
+  @Test
+  void execute_ShouldShareStoredResponseWithRouteRequests() {
+    filter.filter(exchange("key-1"), respond(HttpStatus.CREATED, "created")).block(TIMEOUT);
+
+    CachedResponse replayed = factory.execute("Bearer token", HttpMethod.POST, "/api/v1/tasks",
+        "key-1", () -> {
+          chainCalls.incrementAndGet();
+          return Mono.just(new CachedResponse(201, null, new byte[0]));
+        }).block(TIMEOUT);
+
+    assertEquals(1, chainCalls.get());
+    assertEquals(201, replayed.status());
+    assertEquals("created", new String(replayed.body(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void execute_ShouldNotStoreResponse_WhenMethodIsNotWrite() {
+    for (int i = 0; i < 2; i++) {
+      factory.execute("Bearer token", HttpMethod.GET, "/api/v1/tasks", "key-1", () -> {
+        chainCalls.incrementAndGet();
+        return Mono.just(new CachedResponse(200, null, new byte[0]));
+      }).block(TIMEOUT);
+    }
+
+    assertEquals(2, chainCalls.get());
+  }
+
+  @Test
+  void filter_ShouldWaitForFirstRequest_WhenKeyIsInProgress() {
+    Sinks.Empty<Void> firstResponseReady = Sinks.empty();
+    GatewayFilterChain slowChain = exchange -> {
+      chainCalls.incrementAndGet();
+      return firstResponseReady.asMono()
+          .then(write(exchange.getResponse(), HttpStatus.CREATED, "created"));
+    };
+    CompletableFuture<Void> first = filter.filter(exchange("key-1"), slowChain).toFuture();
+
+    MockServerWebExchange second = exchange("key-1");
+    CompletableFuture<Void> replay =
+        filter.filter(second, respond(HttpStatus.CREATED, "duplicate")).toFuture();
+    assertFalse(replay.isDone());
+
+    firstResponseReady.tryEmitEmpty();
+    first.join();
+    replay.join();
+
+    assertEquals(1, chainCalls.get());
+    assertEquals("created", second.getResponse().getBodyAsString().block(TIMEOUT));
+  }
+
+  private static MockServerWebExchange exchange(String idempotencyKey) {
+    return exchange(idempotencyKey, "Bearer token");
+  }
+
+  private static MockServerWebExchange exchange(String idempotencyKey, String authorization) {
+    return MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/tasks")
+        .header(HttpHeaders.AUTHORIZATION, authorization)
+        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey));
+  }
+
+  private GatewayFilterChain respond(HttpStatus status, String body) {
+    return exchange -> {
+      chainCalls.incrementAndGet();
+      return write(exchange.getResponse(), status, body);
+    };
+  }
+
+  private static Mono<Void> write(ServerHttpResponse response, HttpStatus status, String body) {
+    response.setStatusCode(status);
+    return response.writeWith(Mono.just(
+        response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+  }
+}
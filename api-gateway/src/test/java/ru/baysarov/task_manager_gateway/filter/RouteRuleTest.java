@@ -0,0 +1,40 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RouteRuleTest {
+
+  @Test
+  void permits_ShouldAllowAnyUser_WhenRouteIsPublicOrAuthenticated() {
+    assertTrue(new RouteRule(AccessLevel.PUBLIC, Set.of()).permits(null));
+    assertTrue(new RouteRule(AccessLevel.AUTHENTICATED, Set.of()).permits(null));
+    assertTrue(new RouteRule(AccessLevel.AUTHENTICATED, Set.of()).permits(List.of()));
+  }
+
+  @Test
+  void permits_ShouldAllow_WhenUserHasOneOfRoles() {
+    RouteRule rule = new RouteRule(AccessLevel.ROLE, Set.of("MANAGER", "ADMIN"));
+
+    assertTrue(rule.permits(List.of("EMPLOYEE", "MANAGER")));
+  }
+
+  @Test
+  void permits_ShouldDeny_WhenUserHasNoneOfRoles() {
+    RouteRule rule = new RouteRule(AccessLevel.ROLE, Set.of("MANAGER"));
+
+    assertFalse(rule.permits(List.of("EMPLOYEE")));
+    assertFalse(rule.permits(List.of()));
+  }
+
+  @Test
+  void permits_ShouldDeny_WhenRolesAreUnknown() {
+    RouteRule rule = new RouteRule(AccessLevel.ROLE, Set.of("MANAGER"));
+
+    assertFalse(rule.permits(null));
+  }
+}
@@ -0,0 +1,127 @@
+package ru.baysarov.task_manager_gateway.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import ru.baysarov.task_manager_gateway.config.RouteSecurityProperties;
+
+/**
+ * Измеряет стоимость определения правила доступа в {@link RouteValidator} для таблицы из
+ * нескольких сотен правил.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.baysarov.task_manager_gateway.filter.RouteValidatorBenchmark} или из IDE
+ * через метод {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteValidatorBenchmark {
+
+  private static final String[] SERVICES = {"tasks", "statistic", "users", "projects", "comments",
+      "notifications", "reports", "teams", "attachments", "labels"};
+
+  @Param({"300"})
+  private int ruleCount;
+
+  private RouteValidator routeValidator;
+  private PathContainer lastRulePath;
+  private PathContainer defaultRulePath;
+  private PathContainer publicPath;
+  private MockServerHttpRequest request;
+
+  @Setup
+  public void setUp() {
+    RouteSecurityProperties properties = new RouteSecurityProperties();
+    properties.setRules(buildRules(ruleCount));
+    routeValidator = new RouteValidator(properties);
+
+    int lastResource = ruleCount / SERVICES.length / 3 - 1;
+    String lastService = SERVICES[SERVICES.length - 1];
+    lastRulePath = PathContainer.parsePath(
+        "/api/v1/" + lastService + "/resource" + lastResource + "/42/admin");
+    defaultRulePath = PathContainer.parsePath("/api/v1/unknown/resource/42");
+    publicPath = PathContainer.parsePath("/auth/token");
+    request = MockServerHttpRequest.get(
+        "/api/v1/" + SERVICES[0] + "/resource0/42/history?page=1").build();
+  }
+
+  /**
+   * Формирует таблицу правил: для каждого сервиса и ресурса публичный, ролевой и общий шаблон.
+   *
+   * @param count требуемое количество правил
+   * @return список правил
+   */
+  private static List<RouteSecurityProperties.Rule> buildRules(int count) {
+    List<RouteSecurityProperties.Rule> rules = new ArrayList<>();
+    rules.add(rule("/auth/register", AccessLevel.PUBLIC));
+    rules.add(rule("/auth/token", AccessLevel.PUBLIC));
+    rules.add(rule("/eureka/**", AccessLevel.PUBLIC));
+
+    int resourcesPerService = count / SERVICES.length / 3;
+    for (String service : SERVICES) {
+      for (int i = 0; i < resourcesPerService; i++) {
+        String base = "/api/v1/" + service + "/resource" + i;
+        rules.add(rule(base + "/public/**", AccessLevel.PUBLIC));
+        RouteSecurityProperties.Rule admin = rule(base + "/{id}/admin", AccessLevel.ROLE);
+        admin.setRoles(List.of("MANAGER"));
+        rules.add(admin);
+        rules.add(rule(base + "/**", AccessLevel.AUTHENTICATED));
+      }
+    }
+    return rules;
+  }
+
+  private static RouteSecurityProperties.Rule rule(String pattern, AccessLevel access) {
+    RouteSecurityProperties.Rule rule = new RouteSecurityProperties.Rule();
+    rule.setPattern(pattern);
+    rule.setAccess(access);
+    return rule;
+  }
+
+  @Benchmark
+  public RouteRule resolveLastDeclaredRule() {
+    return routeValidator.resolve(lastRulePath);
+  }
+
+  @Benchmark
+  public RouteRule resolveDefaultRule() {
+    return routeValidator.resolve(defaultRulePath);
+  }
+
+  @Benchmark
+  public RouteRule resolvePublicRule() {
+    return routeValidator.resolve(publicPath);
+  }
+
+  @Benchmark
+  public RouteRule resolveRequest() {
+    return routeValidator.resolve(request);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RouteValidatorBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
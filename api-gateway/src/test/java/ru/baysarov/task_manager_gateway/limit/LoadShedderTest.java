@@ -0,0 +1,81 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class LoadShedderTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  @Test
+  void acquire_ShouldAlwaysAdmitNormalPriority_WhenOverThreshold() {
+    LoadShedder shedder = new LoadShedder(1, 1, Duration.ofSeconds(1));
+
+    assertTrue(shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT));
+    assertTrue(shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT));
+    assertEquals(2, shedder.getInFlight());
+  }
+
+  @Test
+  void acquire_ShouldAdmitLowPriority_WhenUnderThreshold() {
+    LoadShedder shedder = new LoadShedder(2, 1, Duration.ofSeconds(1));
+
+    assertTrue(shedder.acquire(RequestPriority.LOW).block(TIMEOUT));
+    assertEquals(1, shedder.getInFlight());
+  }
+
+  @Test
+  void acquire_ShouldQueueLowPriority_UntilRelease() throws Exception {
+    LoadShedder shedder = new LoadShedder(1, 1, Duration.ofSeconds(5));
+    shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT);
+
+    CompletableFuture<Boolean> low = shedder.acquire(RequestPriority.LOW).toFuture();
+    assertFalse(low.isDone());
+    assertEquals(1, shedder.getQueued());
+
+    shedder.release();
+
+    assertTrue(low.get());
+    assertEquals(0, shedder.getQueued());
+    assertEquals(1, shedder.getInFlight());
+  }
+
+  @Test
+  void acquire_ShouldRejectLowPriority_WhenQueueIsFull() {
+    LoadShedder shedder = new LoadShedder(1, 1, Duration.ofSeconds(5));
+    shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT);
+    Disposable queued = shedder.acquire(RequestPriority.LOW).subscribe();
+
+    assertFalse(shedder.acquire(RequestPriority.LOW).block(TIMEOUT));
+
+    queued.dispose();
+  }
+
+  @Test
+  void acquire_ShouldRejectAndDequeueLowPriority_WhenQueueTimeoutExpires() {
+    LoadShedder shedder = new LoadShedder(1, 1, Duration.ofMillis(20));
+    shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT);
+
+    assertFalse(shedder.acquire(RequestPriority.LOW).block(TIMEOUT));
+    assertEquals(0, shedder.getQueued());
+    assertEquals(1, shedder.getInFlight());
+  }
+
+  @Test
+  void acquire_ShouldDequeueLowPriority_WhenCancelled() {
+    LoadShedder shedder = new LoadShedder(1, 1, Duration.ofSeconds(5));
+    shedder.acquire(RequestPriority.NORMAL).block(TIMEOUT);
+
+    shedder.acquire(RequestPriority.LOW).subscribe().dispose();
+    assertEquals(0, shedder.getQueued());
+
+    shedder.release();
+    assertEquals(0, shedder.getInFlight());
+  }
+}
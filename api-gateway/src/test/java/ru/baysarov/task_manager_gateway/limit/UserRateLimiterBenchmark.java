@@ -0,0 +1,67 @@
+package ru.baysarov.task_manager_gateway.limit;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.baysarov.task_manager_gateway.limit.UserRateLimiter.Bandwidth;
+
+/**
+ * Измеряет стоимость проверки лимита в {@link UserRateLimiter} при конкурентном доступе к
+ * нескольким тысячам пользователей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class UserRateLimiterBenchmark {
+
+  private static final int USERS = 10_000;
+
+  private UserRateLimiter limiter;
+  private Bandwidth bandwidth;
+  private String[] emails;
+
+  @Setup
+  public void setUp() {
+    limiter = new UserRateLimiter(Duration.ofMinutes(10), 100_000);
+    bandwidth = Bandwidth.of(1_000_000, 1000);
+    emails = new String[USERS];
+    for (int i = 0; i < USERS; i++) {
+      emails[i] = "user" + i + "@example.com";
+    }
+  }
+
+  @Benchmark
+  public long tryAcquireManyUsers() {
+    return limiter.tryAcquire(emails[ThreadLocalRandom.current().nextInt(USERS)], bandwidth);
+  }
+
+  @Benchmark
+  public long tryAcquireSameUser() {
+    return limiter.tryAcquire(emails[0], bandwidth);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(UserRateLimiterBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
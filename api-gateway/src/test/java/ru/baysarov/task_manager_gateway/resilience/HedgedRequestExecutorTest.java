@@ -0,0 +1,117 @@
+package ru.baysarov.task_manager_gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+class HedgedRequestExecutorTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void execute_ShouldSendHedgedRequest_WhenFirstAttemptIsSlow() {
+    HedgedRequestExecutor executor = executor(true, 10);
+    AtomicBoolean slowAttemptCancelled = new AtomicBoolean();
+    Attempts attempts = new Attempts(
+        Mono.<String>never().doOnCancel(() -> slowAttemptCancelled.set(true)),
+        Mono.just("hedged"));
+
+    String result = executor.execute(attempts, throwable -> true).block(TIMEOUT);
+
+    assertEquals("hedged", result);
+    assertEquals(2, attempts.count());
+    assertTrue(slowAttemptCancelled.get());
+    assertEquals(1.0, meterRegistry.get("gateway.auth.remote.attempts")
+        .tag("type", "hedge").counter().count());
+  }
+
+  @Test
+  void execute_ShouldRetry_WhenAttemptFailsWithRetryableError() {
+    HedgedRequestExecutor executor = executor(true, 10);
+    Attempts attempts = new Attempts(Mono.error(new IOException("connection reset")),
+        Mono.just("retried"));
+
+    String result = executor.execute(attempts, throwable -> true).block(TIMEOUT);
+
+    assertEquals("retried", result);
+    assertEquals(2, attempts.count());
+    assertEquals(1.0, meterRegistry.get("gateway.auth.remote.attempts")
+        .tag("type", "retry").counter().count());
+  }
+
+  @Test
+  void execute_ShouldNotRetry_WhenErrorIsNotRetryable() {
+    HedgedRequestExecutor executor = executor(true, 10);
+    Attempts attempts = new Attempts(Mono.error(new IllegalArgumentException("invalid")),
+        Mono.just("retried"));
+
+    Mono<String> result = executor.execute(attempts, throwable -> false);
+
+    assertThrows(IllegalArgumentException.class, () -> result.block(TIMEOUT));
+    assertEquals(1, attempts.count());
+  }
+
+  @Test
+  void execute_ShouldNotRetry_WhenRetryBudgetIsExhausted() {
+    HedgedRequestExecutor executor = executor(true, 0);
+    Attempts attempts = new Attempts(Mono.error(new IOException("connection reset")),
+        Mono.just("retried"));
+
+    Mono<String> result = executor.execute(attempts, throwable -> true);
+
+    Throwable error = assertThrows(RuntimeException.class, () -> result.block(TIMEOUT));
+    assertTrue(Exceptions.unwrap(error) instanceof IOException);
+    assertEquals(1, attempts.count());
+  }
+
+  @Test
+  void execute_ShouldRecordLatency_WhenAttemptFails() {
+    HedgedRequestExecutor executor = executor(false, 10);
+
+    Mono<String> result = executor.execute(() -> Mono.error(new IOException("timeout")),
+        throwable -> true);
+
+    assertThrows(RuntimeException.class, () -> result.block(TIMEOUT));
+    assertEquals(1, meterRegistry.get("gateway.auth.remote.latency").timer().count());
+  }
+
+  private HedgedRequestExecutor executor(boolean enabled, int budgetMaxBalance) {
+    return new HedgedRequestExecutor(enabled, Duration.ofMillis(20), Duration.ofMillis(20), 0.1,
+        0, budgetMaxBalance, meterRegistry);
+  }
+
+  /**
+   * Возвращает заданные попытки по очереди и считает их.
+   */
+  private static final class Attempts implements Supplier<Mono<String>> {
+
+    private final List<Mono<String>> results;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private Attempts(Mono<String> first, Mono<String> second) {
+      this.results = List.of(first, second);
+    }
+
+    @Override
+    public Mono<String> get() {
+      return results.get(Math.min(count.getAndIncrement(), results.size() - 1));
+    }
+
+    private int count() {
+      return count.get();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package ru.baysarov.task_manager_gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  void tryWithdraw_ShouldAllowUpToMaxBalance_WhenBudgetIsFull() {
+    RetryBudget budget = new RetryBudget(0.1, 0, 3);
+
+    assertTrue(budget.tryWithdraw());
+    assertTrue(budget.tryWithdraw());
+    assertTrue(budget.tryWithdraw());
+    assertFalse(budget.tryWithdraw());
+  }
+
+  @Test
+  void deposit_ShouldAddRatioOfAttempt_PerRequest() {
+    RetryBudget budget = new RetryBudget(0.5, 0, 3);
+    drain(budget);
+
+    budget.deposit();
+    assertFalse(budget.tryWithdraw());
+
+    budget.deposit();
+    assertTrue(budget.tryWithdraw());
+    assertFalse(budget.tryWithdraw());
+  }
+
+  @Test
+  void deposit_ShouldNotExceedMaxBalance() {
+    RetryBudget budget = new RetryBudget(1, 0, 2);
+
+    for (int i = 0; i < 10; i++) {
+      budget.deposit();
+    }
+
+    assertEquals(2.0, budget.getBalance());
+  }
+
+  @Test
+  void tryWithdraw_ShouldRefillMinPerSecond_WhenTimePasses() throws InterruptedException {
+    RetryBudget budget = new RetryBudget(0, 100, 5);
+    drain(budget);
+
+    Thread.sleep(50);
+
+    assertTrue(budget.tryWithdraw());
+  }
+
+  private static void drain(RetryBudget budget) {
+    while (budget.tryWithdraw()) {
+      // списываем весь начальный баланс
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.baysarov.task_manager_gateway.dto.BatchSubRequest;
+import ru.baysarov.task_manager_gateway.dto.BatchSubResponse;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.filter.ConcurrencyLimitFilter;
+import ru.baysarov.task_manager_gateway.filter.IdempotencyFilter;
+import ru.baysarov.task_manager_gateway.filter.LoadSheddingFilter;
+import ru.baysarov.task_manager_gateway.filter.RouteMetricsFilter;
+import ru.baysarov.task_manager_gateway.filter.RouteValidator;
+import ru.baysarov.task_manager_gateway.filter.UserRateLimitFilter;
+
+class BatchServiceTest {
+
+  @Test
+  void normalizePath_ShouldCollapseEmptySegments() {
+    assertEquals("/api/v1/tasks/5", BatchService.normalizePath("/api//v1///tasks/5"));
+    assertEquals("/api/v1/tasks/", BatchService.normalizePath("/api/v1/tasks/"));
+    assertEquals("/", BatchService.normalizePath("//"));
+  }
+
+  @Test
+  void normalizePath_ShouldRejectDotSegments() {
+    assertNull(BatchService.normalizePath("/api/v1/tasks/../statistic"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks/./5"));
+  }
+
+  @Test
+  void normalizePath_ShouldRejectEncodedDotSegments() {
+    assertNull(BatchService.normalizePath("/api/v1/tasks/%2e%2e/statistic"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks/%2E./statistic"));
+  }
+
+  @Test
+  void normalizePath_ShouldRejectEncodedSeparators() {
+    assertNull(BatchService.normalizePath("/api/v1/tasks/..%2fstatistic"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks%2F5"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks/%5c5"));
+  }
+
+  @Test
+  void normalizePath_ShouldRejectSegmentParameters() {
+    assertNull(BatchService.normalizePath("/api/v1/tasks/..;/statistic"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks;jsessionid=1/5"));
+    assertNull(BatchService.normalizePath("/api/v1/tasks/%3b/5"));
+  }
+
+  @Test
+  void normalizePath_ShouldRejectMalformedEncoding() {
+    assertNull(BatchService.normalizePath("/api/v1/tasks/%zz"));
+  }
+
+  @Test
+  void execute_ShouldRejectRequest_WhenMethodIsNotSupported() {
+    WebClient webClient = mock(WebClient.class);
+    BatchService batchService = new BatchService(webClient, mock(BatchRouteTable.class),
+        mock(RouteValidator.class), mock(TrustedHeaderSigner.class),
+        mock(TokenValidationService.class), mock(UserRateLimitFilter.class),
+        mock(ConcurrencyLimitFilter.class), mock(LoadSheddingFilter.class),
+        mock(RouteMetricsFilter.class), mock(IdempotencyFilter.class), new ObjectMapper(), 16,
+        500);
+    BatchSubRequest request = new BatchSubRequest("1", "TRACE", "/api/v1/tasks", null, null);
+
+    List<BatchSubResponse> responses = batchService.execute(List.of(request), "Bearer token",
+        UserDto.builder().email("user@test.com").build()).collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertEquals(1, responses.size());
+    assertEquals(400, responses.get(0).getStatus());
+    verifyNoInteractions(webClient);
+  }
+}
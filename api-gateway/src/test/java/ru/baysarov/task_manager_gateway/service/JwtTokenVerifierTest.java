@@ -0,0 +1,78 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+
+class JwtTokenVerifierTest {
+
+  private static final Key SECRET = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+  private static final KeyPair KEY_PAIR = Keys.keyPairFor(SignatureAlgorithm.RS256);
+
+  private JwksKeySource jwksKeySource;
+  private JwtTokenVerifier verifier;
+
+  @BeforeEach
+  void setUp() {
+    jwksKeySource = mock(JwksKeySource.class);
+    when(jwksKeySource.isEnabled()).thenReturn(true);
+    verifier = new JwtTokenVerifier(true, Encoders.BASE64.encode(SECRET.getEncoded()),
+        jwksKeySource, Duration.ofMinutes(5), true, "");
+  }
+
+  @Test
+  void verify_ShouldReturnUser_WhenHmacSignatureIsValid() {
+    UserDto user = verifier.verify(token(SECRET, null));
+
+    assertEquals("user@test.com", user.getEmail());
+    assertEquals(7, user.getId());
+  }
+
+  @Test
+  void verify_ShouldRejectLocally_WhenHmacSignatureIsForged() {
+    String forged = token(Keys.secretKeyFor(SignatureAlgorithm.HS256), null);
+
+    assertThrows(InvalidTokenException.class, () -> verifier.verify(forged));
+  }
+
+  @Test
+  void verify_ShouldRejectLocally_WhenSignatureDoesNotMatchKnownKey() {
+    when(jwksKeySource.getKey("kid-1")).thenReturn(KEY_PAIR.getPublic());
+    String forged = token(Keys.keyPairFor(SignatureAlgorithm.RS256).getPrivate(), "kid-1");
+
+    assertThrows(InvalidTokenException.class, () -> verifier.verify(forged));
+  }
+
+  @Test
+  void verify_ShouldFallBackToAuth_WhenKeyIdIsUnknown() {
+    when(jwksKeySource.getKey("kid-2")).thenReturn(null);
+
+    assertNull(verifier.verify(token(KEY_PAIR.getPrivate(), "kid-2")));
+  }
+
+  private static String token(Key key, String keyId) {
+    return Jwts.builder()
+        .setHeaderParam("kid", keyId)
+        .setSubject("user@test.com")
+        .claim("uid", 7)
+        .setIssuedAt(new Date())
+        .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+        .signWith(key)
+        .compact();
+  }
+}
@@ -0,0 +1,193 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.baysarov.task_manager_gateway.dto.TokenBatchRequest;
+import ru.baysarov.task_manager_gateway.dto.TokenValidationResult;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+import ru.baysarov.task_manager_gateway.exception.TokenBatchQueueFullException;
+
+class TokenBatchValidatorTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failingBatches = new AtomicInteger();
+  private final AtomicBoolean authHangs = new AtomicBoolean();
+  private TokenBatchValidator validator;
+
+  @AfterEach
+  void tearDown() {
+    validator.stop();
+  }
+
+  @Test
+  void validate_ShouldSendOneRequest_WhenTokensArriveWithinWindow() {
+    validator = validator(Duration.ofMillis(200), 100);
+
+    CompletableFuture<UserDto> first = validator.validate("valid-1").toFuture();
+    CompletableFuture<UserDto> second = validator.validate("invalid-2").toFuture();
+    CompletableFuture<UserDto> third = validator.validate("valid-3").toFuture();
+
+    assertEquals("valid-1", first.join().getEmail());
+    assertEquals("valid-3", third.join().getEmail());
+    CompletionException error = assertThrows(CompletionException.class, second::join);
+    assertTrue(error.getCause() instanceof InvalidTokenException);
+    assertEquals(List.of(List.of("valid-1", "invalid-2", "valid-3")), batches);
+  }
+
+  @Test
+  void validate_ShouldSendBatchEarly_WhenMaxSizeIsReached() {
+    validator = validator(Duration.ofMinutes(1), 2);
+
+    Mono<UserDto> first = validator.validate("valid-1");
+    Mono<UserDto> second = validator.validate("valid-2");
+
+    assertEquals(2, Mono.zip(first, second).block(TIMEOUT).size());
+    assertEquals(1, batches.size());
+  }
+
+  @Test
+  void validate_ShouldFailOnlyItsBatch_WhenAuthServiceFails() {
+    validator = validator(Duration.ofMillis(20), 100);
+    failingBatches.set(1);
+
+    Mono<UserDto> failed = validator.validate("valid-1");
+    assertThrows(WebClientResponseException.class, () -> failed.block(TIMEOUT));
+
+    assertEquals("valid-2", validator.validate("valid-2").block(TIMEOUT).getEmail());
+    assertEquals(2, batches.size());
+  }
+
+  @Test
+  void validate_ShouldNotSendValidation_WhenCallerCancelled() {
+    validator = validator(Duration.ofMillis(200), 100);
+
+    validator.validate("valid-1").subscribe().dispose();
+    UserDto user = validator.validate("valid-2").block(TIMEOUT);
+
+    assertEquals("valid-2", user.getEmail());
+    assertEquals(List.of(List.of("valid-2")), batches);
+  }
+
+  @Test
+  void validate_ShouldFailFast_WhenQueueIsFull() {
+    validator = validator(Duration.ofMillis(1), 1, 1, 1);
+    authHangs.set(true);
+
+    List<Throwable> errors = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 100 && errors.isEmpty(); i++) {
+      validator.validate("valid-" + i).subscribe(user -> { }, errors::add);
+    }
+
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0) instanceof TokenBatchQueueFullException);
+  }
+
+  private TokenBatchValidator validator(Duration window, int maxSize) {
+    return validator(window, maxSize, 8, 1000);
+  }
+
+  private TokenBatchValidator validator(Duration window, int maxSize, int maxConcurrentBatches,
+      int queueCapacity) {
+    WebClient webClient = WebClient.builder()
+        .exchangeFunction(this::exchange)
+        .build();
+    TokenBatchValidator tokenBatchValidator = new TokenBatchValidator(webClient, true, window,
+        maxSize, maxConcurrentBatches, queueCapacity);
+    tokenBatchValidator.start();
+    return tokenBatchValidator;
+  }
+
+  /**
+   * Отвечает как Auth-сервис: токены, начинающиеся с {@code valid}, действительны.
+   */
+  private Mono<ClientResponse> exchange(ClientRequest request) {
+    if (authHangs.get()) {
+      return Mono.never();
+    }
+    return readTokens(request).map(tokens -> {
+      batches.add(tokens);
+      if (failingBatches.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+        return ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+      }
+      List<TokenValidationResult> results = tokens.stream()
+          .map(token -> token.startsWith("valid")
+              ? new TokenValidationResult(true, UserDto.builder().email(token).build(), null)
+              : new TokenValidationResult(false, null, "Invalid token"))
+          .toList();
+      return ClientResponse.create(HttpStatus.OK)
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .body(write(results))
+          .build();
+    });
+  }
+
+  private Mono<List<String>> readTokens(ClientRequest request) {
+    MockClientHttpRequest httpRequest = new MockClientHttpRequest(request.method(), request.url());
+    return request.body().insert(httpRequest, new BodyInserter.Context() {
+          @Override
+          public List<HttpMessageWriter<?>> messageWriters() {
+            return ExchangeStrategies.withDefaults().messageWriters();
+          }
+
+          @Override
+          public Optional<ServerHttpRequest> serverRequest() {
+            return Optional.empty();
+          }
+
+          @Override
+          public Map<String, Object> hints() {
+            return Map.of();
+          }
+        })
+        .then(Mono.defer(httpRequest::getBodyAsString))
+        .map(body -> read(body).getTokens());
+  }
+
+  private TokenBatchRequest read(String body) {
+    try {
+      return objectMapper.readValue(body, TokenBatchRequest.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String write(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
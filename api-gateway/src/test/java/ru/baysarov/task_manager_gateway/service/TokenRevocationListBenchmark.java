@@ -0,0 +1,70 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Измеряет стоимость проверки {@link TokenRevocationList} для неотозванных и отозванных токенов
+ * при заполненном списке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TokenRevocationListBenchmark {
+
+  private static final int TOKENS = 10_000;
+
+  private TokenRevocationList revocationList;
+  private String[] activeTokenIds;
+  private String[] revokedTokenIds;
+
+  @Setup
+  public void setUp() {
+    revocationList = new TokenRevocationList(100_000, 0.001, Duration.ofMinutes(10));
+    long expiresAt = System.currentTimeMillis() + Duration.ofDays(1).toMillis();
+    activeTokenIds = new String[TOKENS];
+    revokedTokenIds = new String[TOKENS];
+    for (int i = 0; i < TOKENS; i++) {
+      activeTokenIds[i] = UUID.randomUUID().toString();
+      revokedTokenIds[i] = UUID.randomUUID().toString();
+      revocationList.revoke(revokedTokenIds[i], expiresAt);
+    }
+  }
+
+  @Benchmark
+  public boolean activeToken() {
+    return revocationList.isRevoked(activeTokenIds[ThreadLocalRandom.current().nextInt(TOKENS)]);
+  }
+
+  @Benchmark
+  public boolean revokedToken() {
+    return revocationList.isRevoked(revokedTokenIds[ThreadLocalRandom.current().nextInt(TOKENS)]);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TokenRevocationListBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,67 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTest {
+
+  private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+
+  @Test
+  void isRevoked_ShouldReturnTrue_WhenFilterWasRebuilt() {
+    // Маленькая емкость и нулевой интервал: фильтр перестраивается при каждом добавлении.
+    TokenRevocationList list = new TokenRevocationList(4, 0.01, Duration.ZERO);
+    long expiresAt = System.currentTimeMillis() + HOUR_MILLIS;
+
+    for (int i = 0; i < 50; i++) {
+      list.revoke("jti-" + i, expiresAt);
+    }
+
+    for (int i = 0; i < 50; i++) {
+      assertTrue(list.isRevoked("jti-" + i), "jti-" + i);
+    }
+    assertEquals(50, list.size());
+  }
+
+  @Test
+  void revoke_ShouldDropExpiredEntries_WhenFilterIsRebuilt() throws InterruptedException {
+    TokenRevocationList list = new TokenRevocationList(100, 0.01, Duration.ZERO);
+    list.revoke("short-lived", System.currentTimeMillis() + 50);
+    Thread.sleep(100);
+
+    list.revoke("long-lived", System.currentTimeMillis() + HOUR_MILLIS);
+
+    assertFalse(list.isRevoked("short-lived"));
+    assertTrue(list.isRevoked("long-lived"));
+    assertEquals(1, list.size());
+  }
+
+  @Test
+  void revoke_ShouldIgnoreToken_WhenItIsAlreadyExpired() {
+    TokenRevocationList list = new TokenRevocationList(100, 0.01, Duration.ofMinutes(10));
+
+    list.revoke("expired", System.currentTimeMillis() - 1);
+
+    assertFalse(list.isRevoked("expired"));
+    assertEquals(0, list.size());
+  }
+
+  @Test
+  void isRevoked_ShouldReturnFalse_WhenTokenIsNotRevoked() {
+    // Высокая доля ложных срабатываний: фильтр часто отвечает «может быть», ответ дает таблица.
+    TokenRevocationList list = new TokenRevocationList(1000, 0.5, Duration.ofMinutes(10));
+    long expiresAt = System.currentTimeMillis() + HOUR_MILLIS;
+    for (int i = 0; i < 1000; i++) {
+      list.revoke("revoked-" + i, expiresAt);
+    }
+
+    for (int i = 0; i < 10000; i++) {
+      assertFalse(list.isRevoked("active-" + i), "active-" + i);
+    }
+    assertFalse(list.isRevoked(null));
+  }
+}
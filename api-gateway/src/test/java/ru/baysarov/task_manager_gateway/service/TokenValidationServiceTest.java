@@ -0,0 +1,155 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+import ru.baysarov.task_manager_gateway.exception.InvalidTokenException;
+import ru.baysarov.task_manager_gateway.exception.TokenBatchQueueFullException;
+import ru.baysarov.task_manager_gateway.resilience.HedgedRequestExecutor;
+
+@ExtendWith(MockitoExtension.class)
+class TokenValidationServiceTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+  private static final String TOKEN = "header.payload.signature";
+
+  @Mock
+  private WebClient authWebClient;
+
+  @Mock
+  private JwtTokenVerifier jwtTokenVerifier;
+
+  @Mock
+  private TokenCache tokenCache;
+
+  @Mock
+  private TokenBatchValidator tokenBatchValidator;
+
+  @Mock
+  private TokenRevocationList tokenRevocationList;
+
+  private TokenValidationService tokenValidationService;
+
+  @BeforeEach
+  void setUp() {
+    HedgedRequestExecutor hedgedRequestExecutor = new HedgedRequestExecutor(false,
+        Duration.ofMillis(5), Duration.ofMillis(500), 0.1, 10, 100, new SimpleMeterRegistry());
+    tokenValidationService = new TokenValidationService(authWebClient, jwtTokenVerifier,
+        tokenCache, tokenBatchValidator, hedgedRequestExecutor, tokenRevocationList);
+  }
+
+  @Test
+  void validate_ShouldShareRemoteValidation_WhenTokenIsValidatedConcurrently() {
+    Sinks.One<UserDto> authResponse = Sinks.one();
+    when(tokenBatchValidator.isEnabled()).thenReturn(true);
+    when(tokenBatchValidator.validate(TOKEN)).thenReturn(authResponse.asMono());
+
+    CompletableFuture<UserDto> first = tokenValidationService.validate(TOKEN).toFuture();
+    CompletableFuture<UserDto> second = tokenValidationService.validate(TOKEN).toFuture();
+    UserDto user = user(List.of("USER"));
+    authResponse.tryEmitValue(user);
+
+    assertSame(user, first.join());
+    assertSame(user, second.join());
+    verify(tokenBatchValidator, times(1)).validate(TOKEN);
+    verify(tokenCache).put(TOKEN, user);
+  }
+
+  @Test
+  void validate_ShouldCallAuthAgain_WhenPreviousValidationFailed() {
+    when(tokenBatchValidator.isEnabled()).thenReturn(true);
+    when(tokenBatchValidator.validate(TOKEN))
+        .thenReturn(Mono.error(new IOException("connection reset")))
+        .thenReturn(Mono.just(user(List.of("USER"))));
+
+    assertThrows(RuntimeException.class,
+        () -> tokenValidationService.validate(TOKEN).block(TIMEOUT));
+    UserDto user = tokenValidationService.validate(TOKEN).block(TIMEOUT);
+
+    assertEquals("user@test.com", user.getEmail());
+    verify(tokenBatchValidator, times(2)).validate(TOKEN);
+  }
+
+  @Test
+  void validate_ShouldUseCache_WhenTokenIsCached() {
+    UserDto user = user(List.of("USER"));
+    when(tokenCache.get(TOKEN)).thenReturn(user);
+
+    assertSame(user, tokenValidationService.validate(TOKEN).block(TIMEOUT));
+    verify(tokenBatchValidator, never()).validate(any());
+  }
+
+  @Test
+  void validate_ShouldReject_WhenTokenIsRevoked() {
+    UserDto user = user(List.of("USER"));
+    user.setTokenId("jti-1");
+    when(tokenCache.get(TOKEN)).thenReturn(user);
+    when(tokenRevocationList.isRevoked("jti-1")).thenReturn(true);
+
+    assertThrows(InvalidTokenException.class,
+        () -> tokenValidationService.validate(TOKEN).block(TIMEOUT));
+  }
+
+  @Test
+  void validate_ShouldAskAuthForRoles_WhenLocalTokenHasNoTrustedRoles() {
+    when(jwtTokenVerifier.isEnabled()).thenReturn(true);
+    when(jwtTokenVerifier.verify(TOKEN)).thenReturn(user(null));
+    when(tokenBatchValidator.isEnabled()).thenReturn(true);
+    when(tokenBatchValidator.validate(TOKEN)).thenReturn(Mono.just(user(List.of("MANAGER"))));
+
+    UserDto user = tokenValidationService.validate(TOKEN, true).block(TIMEOUT);
+
+    assertEquals(List.of("MANAGER"), user.getRoles());
+  }
+
+  @Test
+  void validate_ShouldNotAskAuthForRoles_WhenRolesAreNotRequired() {
+    when(jwtTokenVerifier.isEnabled()).thenReturn(true);
+    when(jwtTokenVerifier.verify(TOKEN)).thenReturn(user(null));
+
+    UserDto user = tokenValidationService.validate(TOKEN, false).block(TIMEOUT);
+
+    assertNull(user.getRoles());
+    verify(tokenBatchValidator, never()).validate(any());
+  }
+
+  @Test
+  void validate_ShouldNotRetry_WhenBatchQueueIsFull() {
+    HedgedRequestExecutor hedgedRequestExecutor = new HedgedRequestExecutor(true,
+        Duration.ofSeconds(1), Duration.ofSeconds(1), 0.1, 10, 100, new SimpleMeterRegistry());
+    tokenValidationService = new TokenValidationService(authWebClient, jwtTokenVerifier,
+        tokenCache, tokenBatchValidator, hedgedRequestExecutor, tokenRevocationList);
+    when(tokenBatchValidator.isEnabled()).thenReturn(true);
+    when(tokenBatchValidator.validate(TOKEN))
+        .thenReturn(Mono.error(new TokenBatchQueueFullException("Token batch queue is full")));
+
+    assertThrows(TokenBatchQueueFullException.class,
+        () -> tokenValidationService.validate(TOKEN).block(TIMEOUT));
+    verify(tokenBatchValidator, times(1)).validate(TOKEN);
+  }
+
+  private static UserDto user(List<String> roles) {
+    return UserDto.builder().id(1).email("user@test.com").roles(roles).build();
+  }
+}
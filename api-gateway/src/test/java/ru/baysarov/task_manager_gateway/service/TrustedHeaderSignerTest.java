@@ -0,0 +1,56 @@
+package ru.baysarov.task_manager_gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import ru.baysarov.task_manager_gateway.dto.UserDto;
+
+class TrustedHeaderSignerTest {
+
+  private static final String SECRET = "trusted-headers-secret";
+
+  private final TrustedHeaderSigner signer = new TrustedHeaderSigner(SECRET);
+
+  @Test
+  void addUserHeaders_ShouldSignAllValues_WhenIdAndRolesAreKnown() throws Exception {
+    HttpHeaders headers = new HttpHeaders();
+
+    signer.addUserHeaders(headers, UserDto.builder()
+        .id(1).email("user@test.com").roles(List.of("MANAGER", "USER")).build());
+
+    String timestamp = headers.getFirst(TrustedHeaderSigner.TIMESTAMP_HEADER);
+    assertEquals("1", headers.getFirst(TrustedHeaderSigner.USER_ID_HEADER));
+    assertEquals("MANAGER,USER", headers.getFirst(TrustedHeaderSigner.USER_ROLES_HEADER));
+    assertEquals(sign("user@test.com", "1", "MANAGER,USER", timestamp),
+        headers.getFirst(TrustedHeaderSigner.SIGNATURE_HEADER));
+  }
+
+  @Test
+  void addUserHeaders_ShouldSignEmail_WhenRolesAreUnknown() throws Exception {
+    HttpHeaders headers = new HttpHeaders();
+
+    signer.addUserHeaders(headers, UserDto.builder().id(1).email("user@test.com").build());
+
+    String timestamp = headers.getFirst(TrustedHeaderSigner.TIMESTAMP_HEADER);
+    assertNotNull(timestamp);
+    assertFalse(headers.containsKey(TrustedHeaderSigner.USER_ID_HEADER));
+    assertFalse(headers.containsKey(TrustedHeaderSigner.USER_ROLES_HEADER));
+    assertEquals(sign("user@test.com", timestamp),
+        headers.getFirst(TrustedHeaderSigner.SIGNATURE_HEADER));
+  }
+
+  private static String sign(String... values) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    byte[] signature = mac.doFinal(String.join("\n", values).getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(signature);
+  }
+}
@@ -1,5 +1,7 @@
 package ru.baysarov.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,6 +12,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import ru.baysarov.service.BoundedPasswordEncoder;
 
 
 @Configuration
@@ -24,7 +27,10 @@ public class AuthConfig {
             .requestMatchers(
                 "/auth/register",
                 "/auth/validateToken",
+                "/auth/validateTokens",
                 "/auth/token",
+                "/auth/logout",
+                "/auth/.well-known/jwks.json",
                 "/user/**",
                 "/v3/api-docs"
             ).permitAll()
@@ -33,9 +39,22 @@ public class AuthConfig {
     return http.build();
   }
 
+  /**
+   * Кодировщик паролей BCrypt, выполняющий хэширование в ограниченном пуле потоков, чтобы вход и
+   * регистрация под нагрузкой не занимали все потоки обработки запросов.
+   *
+   * @param threads       количество потоков хэширования, по умолчанию - число процессоров
+   * @param queueCapacity максимальное количество ожидающих операций
+   * @param meterRegistry реестр метрик
+   * @return кодировщик паролей
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+      @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity,
+        meterRegistry);
   }
 
   @Bean
@@ -0,0 +1,123 @@
+package ru.baysarov.config;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.stereotype.Component;
+
+/**
+ * Назначает слушателям все разделы топика без группы потребителей.
+ * <p>
+ * Слушатели, которые восстанавливают состояние в памяти из сжатого топика, читают все его разделы
+ * с начала без группы потребителей: каждому экземпляру нужен топик целиком, а смещения не
+ * фиксируются, поэтому после перезапуска топик снова читается с начала и в брокере не остаются
+ * группы остановленных экземпляров.
+ * <p>
+ * Разделы запрашиваются в фоне сразу после регистрации слушателя и затем раз в
+ * {@code kafka.partition-refresh-interval}. Для разделов, которых еще не было при прошлой
+ * проверке (топик создан после запуска или в него добавлены разделы), запускается контейнер,
+ * читающий их с начала. Если Kafka недоступна, запуск сервиса не блокируется: ошибка
+ * записывается в журнал, и разделы запрашиваются снова при следующей проверке.
+ */
+@Component
+@Slf4j
+public class KafkaPartitionAssigner {
+
+  private static final Duration PARTITIONS_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ConcurrentKafkaListenerContainerFactory<String, String> containerFactory;
+  private final Duration refreshInterval;
+  private final ScheduledExecutorService scheduler;
+  private final List<MessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+
+  /**
+   * Конструктор для KafkaPartitionAssigner.
+   *
+   * @param containerFactory фабрика контейнеров слушателей
+   * @param refreshInterval  интервал проверки новых разделов
+   */
+  public KafkaPartitionAssigner(
+      @Qualifier("tokenRevocationListenerFactory")
+      ConcurrentKafkaListenerContainerFactory<String, String> containerFactory,
+      @Value("${kafka.partition-refresh-interval:1m}") Duration refreshInterval) {
+    this.containerFactory = containerFactory;
+    this.refreshInterval = refreshInterval;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "kafka-partition-assigner");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Подписывает слушателя на все разделы топика, в том числе добавленные позже. Возвращает
+   * управление сразу, разделы назначаются в фоне.
+   *
+   * @param topic    имя топика
+   * @param listener слушатель сообщений
+   */
+  public void listen(String topic, MessageListener<String, String> listener) {
+    Set<Integer> assigned = new HashSet<>();
+    scheduler.scheduleWithFixedDelay(() -> assign(topic, listener, assigned), 0,
+        refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+    containers.forEach(MessageListenerContainer::stop);
+  }
+
+  /**
+   * Запускает контейнер для разделов топика, которых нет в {@code assigned}, и добавляет их
+   * туда.
+   */
+  void assign(String topic, MessageListener<String, String> listener, Set<Integer> assigned) {
+    try {
+      List<PartitionInfo> partitions;
+      try (Consumer<?, ?> consumer =
+          containerFactory.getConsumerFactory().createConsumer()) {
+        partitions = consumer.partitionsFor(topic, PARTITIONS_TIMEOUT);
+      }
+      TopicPartitionOffset[] added = partitions == null ? new TopicPartitionOffset[0]
+          : partitions.stream()
+              .map(PartitionInfo::partition)
+              .filter(partition -> !assigned.contains(partition))
+              .map(partition -> new TopicPartitionOffset(topic, partition, 0L))
+              .toArray(TopicPartitionOffset[]::new);
+      if (added.length == 0) {
+        if (assigned.isEmpty()) {
+          log.warn("Topic {} has no partitions yet, retrying in {}", topic, refreshInterval);
+        }
+        return;
+      }
+      ConcurrentMessageListenerContainer<String, String> container =
+          containerFactory.createContainer(added);
+      container.setupMessageListener(listener);
+      container.start();
+      containers.add(container);
+      Arrays.stream(added).forEach(partition -> assigned.add(partition.getPartition()));
+      log.info("Listening to topic {}, partitions {}", topic, assigned);
+    } catch (RuntimeException e) {
+      log.warn("Unable to assign partitions of topic {}, retrying in {}: {}", topic,
+          refreshInterval, e.getMessage());
+    }
+  }
+}
@@ -3,8 +3,12 @@ package ru.baysarov.controller;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -12,6 +16,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,6 +26,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import ru.baysarov.dto.AuthRequest;
 import ru.baysarov.dto.AuthResponse;
 import ru.baysarov.dto.RegisterRequest;
+import ru.baysarov.dto.TokenBatchRequest;
 import ru.baysarov.service.AuthService;
 import ru.baysarov.service.UserService;
 
@@ -35,6 +41,9 @@ public class AuthController {
   private final AuthService authService;
   private final UserService userService;
 
+  @Value("${jwt.jwks.max-age:300}")
+  private long jwksMaxAgeInSeconds;
+
   @Autowired
   public AuthController(AuthService service, UserService userService) {
     this.authService = service;
@@ -105,10 +114,68 @@ public class AuthController {
       })
   @GetMapping("/validateToken")
   public ResponseEntity<?> validateToken(@RequestParam @Parameter(description = "Токен для валидации") String token) {
-    log.info("Trying to validate token {}", token);
+    log.info("Trying to validate token");
     return ResponseEntity.ok(authService.validateToken(token));
   }
 
+  /**
+   * Пакетная валидация токенов аутентификации.
+   *
+   * @param tokenBatchRequest Запрос со списком токенов для валидации.
+   * @param bindingResult Результаты валидации, которые могут содержать ошибки.
+   * @return Ответ со списком результатов в порядке следования токенов в запросе.
+   */
+  @Operation(summary = "Пакетная валидация токенов",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Токены проверены"),
+          @ApiResponse(responseCode = "400", description = "Ошибки валидации")
+      })
+  @PostMapping("/validateTokens")
+  public ResponseEntity<?> validateTokens(@RequestBody @Valid TokenBatchRequest tokenBatchRequest,
+      BindingResult bindingResult) {
+    ResponseEntity<?> errors = getResponseEntity(bindingResult);
+    if (errors != null) {
+      log.error("Validation errors during batch token validation: {}", errors.getBody());
+      return errors;
+    }
+    log.info("Trying to validate {} tokens", tokenBatchRequest.getTokens().size());
+    return ResponseEntity.ok(authService.validateTokens(tokenBatchRequest.getTokens()));
+  }
+
+  /**
+   * Выход пользователя: отзыв токена из заголовка Authorization.
+   *
+   * @param authorization Заголовок Authorization с токеном в формате {@code Bearer <token>}.
+   * @return Ответ с кодом статуса 204 (No Content) после отзыва токена.
+   */
+  @Operation(summary = "Выход и отзыв токена",
+      responses = {
+          @ApiResponse(responseCode = "204", description = "Токен отозван"),
+          @ApiResponse(responseCode = "401", description = "Токен не валиден")
+      })
+  @PostMapping("/logout")
+  public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+    authService.revokeToken(token);
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Открытые ключи для проверки подписи токенов.
+   *
+   * @return JWK Set с открытыми ключами и заголовком Cache-Control
+   */
+  @Operation(summary = "Открытые ключи проверки токенов (JWKS)",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "JWK Set с открытыми ключами")
+      })
+  @GetMapping("/.well-known/jwks.json")
+  public ResponseEntity<Map<String, Object>> getJwks() {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(jwksMaxAgeInSeconds, TimeUnit.SECONDS).cachePublic())
+        .body(authService.getJwks());
+  }
+
   /**
    * Обработка ошибок валидации.
    *
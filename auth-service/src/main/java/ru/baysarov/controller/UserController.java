@@ -1,16 +1,23 @@
 package ru.baysarov.controller;
 
+import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import ru.baysarov.dto.UserDto;
+import ru.baysarov.dto.UserEmailsRequest;
+import ru.baysarov.dto.UserIdsRequest;
+import ru.baysarov.dto.UserWithRolesDto;
 import ru.baysarov.service.UserService;
 
 @RestController
@@ -80,4 +87,69 @@ public class UserController {
   public List<String> getUserRoles(@PathVariable @Parameter(description = "Email пользователя") String email) {
     return userService.getUserRoles(email);
   }
+
+  /**
+   * Получение пользователя вместе с ролями по электронной почте.
+   *
+   * @param email адрес электронной почты пользователя.
+   * @return Пользователь и его роли или 404, если не найден.
+   */
+  @Operation(summary = "Получение пользователя вместе с ролями",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Пользователь и его роли"),
+          @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+      })
+  @GetMapping("/{email}/with-roles")
+  public ResponseEntity<?> getUserWithRoles(@PathVariable @Parameter(description = "Email пользователя") String email) {
+    try {
+      UserWithRolesDto user = userService.findWithRolesByEmail(email);
+      return new ResponseEntity<>(user, HttpStatus.OK);
+    } catch (RuntimeException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  /**
+   * Пакетное получение пользователей по идентификаторам.
+   *
+   * @param request запрос со списком идентификаторов.
+   * @param bindingResult результаты валидации.
+   * @return Список найденных пользователей; не найденные идентификаторы пропускаются.
+   */
+  @Operation(summary = "Получение пользователей по списку идентификаторов",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Список найденных пользователей"),
+          @ApiResponse(responseCode = "400", description = "Ошибки валидации")
+      })
+  @PostMapping("/batch/ids")
+  public ResponseEntity<?> getUsersByIds(@RequestBody @Valid UserIdsRequest request,
+      BindingResult bindingResult) {
+    ResponseEntity<?> errors = AuthController.getResponseEntity(bindingResult);
+    if (errors != null) {
+      return errors;
+    }
+    return ResponseEntity.ok(userService.findAllByIds(request.getIds()));
+  }
+
+  /**
+   * Пакетное получение пользователей по адресам электронной почты.
+   *
+   * @param request запрос со списком адресов электронной почты.
+   * @param bindingResult результаты валидации.
+   * @return Список найденных пользователей; не найденные адреса пропускаются.
+   */
+  @Operation(summary = "Получение пользователей по списку адресов электронной почты",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Список найденных пользователей"),
+          @ApiResponse(responseCode = "400", description = "Ошибки валидации")
+      })
+  @PostMapping("/batch/emails")
+  public ResponseEntity<?> getUsersByEmails(@RequestBody @Valid UserEmailsRequest request,
+      BindingResult bindingResult) {
+    ResponseEntity<?> errors = AuthController.getResponseEntity(bindingResult);
+    if (errors != null) {
+      return errors;
+    }
+    return ResponseEntity.ok(userService.findAllByEmails(request.getEmails()));
+  }
 }
@@ -0,0 +1,24 @@
+package ru.baysarov.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO класс для запроса пакетной проверки токенов.
+ * Содержит список токенов, которые необходимо проверить за один вызов.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenBatchRequest {
+
+  @NotEmpty(message = "Tokens are required")
+  @Size(max = 500, message = "No more than 500 tokens per request")
+  private List<String> tokens;
+}
@@ -0,0 +1,29 @@
+package ru.baysarov.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO класс с результатом проверки одного токена в пакетном запросе.
+ * Для действительного токена содержит пользователя, для недействительного - причину ошибки.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenValidationResult {
+
+  private boolean valid;
+  private UserWithRolesDto user;
+  private String error;
+
+  public static TokenValidationResult valid(UserWithRolesDto user) {
+    return new TokenValidationResult(true, user, null);
+  }
+
+  public static TokenValidationResult invalid(String error) {
+    return new TokenValidationResult(false, null, error);
+  }
+}
@@ -0,0 +1,23 @@
+package ru.baysarov.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO класс для запроса пакетного получения пользователей по адресам электронной почты.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserEmailsRequest {
+
+  @NotEmpty(message = "Emails are required")
+  @Size(max = 500, message = "No more than 500 emails per request")
+  private List<String> emails;
+}
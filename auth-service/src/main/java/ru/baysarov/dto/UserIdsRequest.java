@@ -0,0 +1,23 @@
+package ru.baysarov.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO класс для запроса пакетного получения пользователей по идентификаторам.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIdsRequest {
+
+  @NotEmpty(message = "Ids are required")
+  @Size(max = 500, message = "No more than 500 ids per request")
+  private List<Integer> ids;
+}
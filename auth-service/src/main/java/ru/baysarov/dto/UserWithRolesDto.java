@@ -0,0 +1,23 @@
+package ru.baysarov.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO класс для представления пользователя вместе с его ролями.
+ * Используется сервисами для проверки прав доступа одним запросом.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserWithRolesDto {
+
+  private int id;
+  private String email;
+  private List<String> roles;
+
+}
@@ -0,0 +1,45 @@
+package ru.baysarov.event;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.baysarov.dto.UserWithRolesDto;
+import ru.baysarov.model.UserCredential;
+
+/**
+ * Событие изменения пользователя: создание, изменение данных или роли, удаление.
+ * <p>
+ * Публикуется внутри транзакции, изменившей пользователя, и отправляется в топик
+ * {@code user_changed} после ее фиксации (см. {@link UserChangedEventPublisher}).
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+  /** Идентификатор пользователя. */
+  private final int id;
+
+  /** Текущее состояние пользователя или {@code null}, если пользователь удален. */
+  private final UserWithRolesDto user;
+
+  /**
+   * Создает событие создания или изменения пользователя.
+   *
+   * @param user пользователь после изменения
+   * @return событие с текущим состоянием пользователя
+   */
+  public static UserChangedEvent changed(UserCredential user) {
+    return new UserChangedEvent(user.getId(), new UserWithRolesDto(user.getId(), user.getEmail(),
+        List.of(user.getRole().toString())));
+  }
+
+  /**
+   * Создает событие удаления пользователя.
+   *
+   * @param id идентификатор удаленного пользователя
+   * @return событие без состояния пользователя
+   */
+  public static UserChangedEvent deleted(int id) {
+    return new UserChangedEvent(id, null);
+  }
+}
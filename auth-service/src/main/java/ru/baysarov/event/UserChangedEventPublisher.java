@@ -0,0 +1,58 @@
+package ru.baysarov.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Отправляет события изменения пользователей в топик {@code user_changed}.
+ * <p>
+ * Событие отправляется только после фиксации транзакции, поэтому потребители не увидят
+ * изменение, которое затем было откачено. Ключ сообщения - идентификатор пользователя, значение -
+ * JSON с идентификатором, email и ролями пользователя или {@code null} для удаленного пользователя.
+ * Топик сжимается по ключу, так что новый потребитель, прочитав его с начала, получает последнее
+ * состояние каждого пользователя.
+ */
+@Component
+@Slf4j
+public class UserChangedEventPublisher {
+
+  /** Топик изменений пользователей. */
+  public static final String USER_CHANGED_TOPIC = "user_changed";
+
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+
+  public UserChangedEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
+      ObjectMapper objectMapper) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Отправляет событие изменения пользователя после фиксации транзакции.
+   *
+   * @param event событие изменения пользователя
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    String key = String.valueOf(event.getId());
+    String value;
+    try {
+      value = event.getUser() == null ? null : objectMapper.writeValueAsString(event.getUser());
+    } catch (JsonProcessingException e) {
+      log.error("Failed to serialize change of user {}: {}", key, e.getMessage());
+      return;
+    }
+    kafkaTemplate.send(USER_CHANGED_TOPIC, key, value)
+        .whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            log.error("Failed to publish change of user {}: {}", key, throwable.getMessage());
+          }
+        });
+  }
+}
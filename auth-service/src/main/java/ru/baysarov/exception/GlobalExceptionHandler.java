@@ -3,6 +3,7 @@ package ru.baysarov.exception;
 import java.nio.file.AccessDeniedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -35,6 +36,36 @@ public class GlobalExceptionHandler {
     logger.error(ex.getMessage(), ex);
     return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
   }
+
+  /**
+   * Обрабатывает исключения типа InvalidTokenException. Код 401 позволяет шлюзу отличить
+   * недействительный токен от сбоя сервиса и не повторять такой запрос.
+   *
+   * @param ex исключение, которое необходимо обработать
+   * @return ResponseEntity с кодом статуса 401 и сообщением об ошибке
+   */
+  @ExceptionHandler(InvalidTokenException.class)
+  public ResponseEntity<String> handleInvalidTokenException(InvalidTokenException ex) {
+    logger.warn(ex.getMessage());
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
+  }
+
+  /**
+   * Обрабатывает исключения типа PasswordHashingOverloadedException. Код 503 с заголовком
+   * Retry-After сообщает клиенту, что запрос можно повторить позже.
+   *
+   * @param ex исключение, которое необходимо обработать
+   * @return ResponseEntity с кодом статуса 503 и сообщением об ошибке
+   */
+  @ExceptionHandler(PasswordHashingOverloadedException.class)
+  public ResponseEntity<String> handlePasswordHashingOverloadedException(
+      PasswordHashingOverloadedException ex) {
+    logger.warn(ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(ex.getMessage());
+  }
+
   /**
    * Обрабатывает исключения типа AccessDeniedException.
    *
@@ -0,0 +1,13 @@
+package ru.baysarov.exception;
+
+/**
+ * Исключение, возникающее, когда очередь хэширования паролей заполнена и запрос отклоняется без
+ * ожидания.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+
+  public PasswordHashingOverloadedException(String message) {
+    super(message);
+  }
+}
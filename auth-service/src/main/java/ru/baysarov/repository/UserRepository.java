@@ -1,5 +1,7 @@
 package ru.baysarov.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.baysarov.model.UserCredential;
@@ -7,4 +9,8 @@ import ru.baysarov.model.UserCredential;
 public interface UserRepository extends JpaRepository<UserCredential, Integer> {
 
   Optional<UserCredential> findByEmail(String email);
+
+  List<UserCredential> findAllByEmailIn(Collection<String> emails);
+
+  List<UserCredential> findAllByIdIn(Collection<Integer> ids);
 }
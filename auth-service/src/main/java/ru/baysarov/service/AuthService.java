@@ -1,24 +1,29 @@
 package ru.baysarov.service;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import io.jsonwebtoken.Claims;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ru.baysarov.dto.AuthRequest;
-import ru.baysarov.dto.UserDto;
+import ru.baysarov.dto.TokenValidationResult;
+import ru.baysarov.dto.UserWithRolesDto;
 import ru.baysarov.exception.InvalidTokenException;
 import ru.baysarov.exception.UserNotFoundException;
-import ru.baysarov.repository.UserRepository;
+import ru.baysarov.model.UserCredential;
 
 /**
  * Сервис для аутентификации и управления токенами.
@@ -31,42 +36,64 @@ import ru.baysarov.repository.UserRepository;
 @Slf4j
 public class AuthService {
 
-  private final AuthenticationManager authenticationManager;
-  private final UserRepository userRepository;
+  /** Claim с идентификатором пользователя. */
+  public static final String USER_ID_CLAIM = "uid";
+
+  /** Claim с ролью пользователя. */
+  public static final String ROLE_CLAIM = "role";
 
-  @Value("${jwt.secret}")
-  private String SECRET_KEY;
+  private final AuthenticationManager authenticationManager;
+  private final UserCache userCache;
+  private final JwtKeyRing jwtKeyRing;
+  private final TokenRevocationList tokenRevocationList;
+  private final KafkaTemplate<String, String> kafkaTemplate;
 
   @Setter
   @Value("${jwt.expiration-time}")
   private long expirationTimeInSeconds;
 
+  @Setter
+  @Value("${jwt.claims-trusted-for:300}")
+  private long claimsTrustedForInSeconds;
 
   /**
    * Конструктор для инициализации {@link AuthService}.
    *
    * @param authenticationManager менеджер аутентификации
-   * @param userRepository         репозиторий для работы с пользователями
+   * @param userCache              кэш пользователей
+   * @param jwtKeyRing             набор ключей подписи токенов
+   * @param tokenRevocationList    список отозванных токенов
+   * @param kafkaTemplate          шаблон для публикации отозванных токенов
    */
   @Autowired
-  public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository) {
+  public AuthService(AuthenticationManager authenticationManager, UserCache userCache,
+      JwtKeyRing jwtKeyRing, TokenRevocationList tokenRevocationList,
+      KafkaTemplate<String, String> kafkaTemplate) {
     this.authenticationManager = authenticationManager;
-    this.userRepository = userRepository;
+    this.userCache = userCache;
+    this.jwtKeyRing = jwtKeyRing;
+    this.tokenRevocationList = tokenRevocationList;
+    this.kafkaTemplate = kafkaTemplate;
   }
 
   /**
-   * Генерирует JWT токен для заданного email.
+   * Генерирует JWT токен для пользователя. Кроме email ({@code sub}) токен содержит
+   * идентификатор ({@code uid}) и роль ({@code role}) пользователя, а также собственный
+   * идентификатор ({@code jti}), по которому токен можно отозвать.
    *
-   * @param email email пользователя, для которого генерируется токен
+   * @param user пользователь, для которого генерируется токен
    * @return сгенерированный токен
    */
-  public String generateToken(String email) {
-    long expirationTimeInMillis = expirationTimeInSeconds * 1000;
-    String token = Jwts.builder()
+  public String generateToken(UserCredential user) {
+    String email = user.getEmail();
+    long now = System.currentTimeMillis();
+    String token = jwtKeyRing.builder()
+        .setId(UUID.randomUUID().toString())
         .setSubject(email)
-        .setIssuedAt(new Date(System.currentTimeMillis()))
-        .setExpiration(new Date(System.currentTimeMillis() + expirationTimeInMillis))
-        .signWith(getSigninKey(), SignatureAlgorithm.HS256)
+        .claim(USER_ID_CLAIM, user.getId())
+        .claim(ROLE_CLAIM, user.getRole().name())
+        .setIssuedAt(new Date(now))
+        .setExpiration(new Date(now + expirationTimeInSeconds * 1000))
         .compact();
 
     log.info("Generated token for user: {}", email);
@@ -75,33 +102,31 @@ public class AuthService {
 
   /**
    * Проверяет валидность заданного токена и возвращает информацию о пользователе.
+   * <p>
+   * Если токен содержит идентификатор и роль пользователя и выдан не раньше
+   * {@code jwt.claims-trusted-for} секунд назад, ответ строится по claims без обращения к базе
+   * данных. Для более старых токенов, а также токенов без этих claims пользователь берется из
+   * {@link UserCache}, что позволяет учесть удаление пользователя или смену роли.
    *
    * @param token токен для проверки
-   * @return {@link UserDto} с информацией о пользователе, если токен валиден
+   * @return {@link UserWithRolesDto} с информацией о пользователе и его ролях, если токен валиден
    * @throws InvalidTokenException если токен недействителен
    * @throws UserNotFoundException если пользователь не найден
    */
-  @Transactional(readOnly = true)
-  public UserDto validateToken(String token) {
-    log.info("Trying to validate token: {}", token);
+  public UserWithRolesDto validateToken(String token) {
+    log.debug("Trying to validate token");
 
-    String email;
-    try {
-      email = Jwts.parserBuilder()
-          .setSigningKey(getSigninKey())
-          .build()
-          .parseClaimsJws(token)
-          .getBody()
-          .getSubject();
-    } catch (Exception e) {
-      log.error("Token validation failed: {}", e.getMessage());
-      throw new InvalidTokenException("Invalid token: " + e.getMessage());
+    Claims claims = parseClaims(token);
+    UserWithRolesDto fromClaims = fromClaims(claims);
+    if (fromClaims != null) {
+      return fromClaims;
     }
 
-    return userRepository.findByEmail(email)
+    String email = claims.getSubject();
+    return userCache.findByEmail(email)
         .map(user -> {
           log.info("Token is valid for user: {}", email);
-          return new UserDto(user.getId(), user.getEmail());
+          return toUserWithRoles(user);
         })
         .orElseThrow(() -> {
           log.error("User not found for email: {}", email);
@@ -109,6 +134,87 @@ public class AuthService {
         });
   }
 
+  /**
+   * Проверяет несколько токенов за один вызов. Токены, для которых достаточно claims (см.
+   * {@link #validateToken(String)}), проверяются без обращения к базе данных; пользователи
+   * остальных токенов, которых нет в {@link UserCache}, загружаются одним запросом.
+   *
+   * @param tokens список токенов для проверки
+   * @return список результатов в том же порядке, что и входные токены
+   */
+  public List<TokenValidationResult> validateTokens(List<String> tokens) {
+    log.info("Trying to validate {} tokens", tokens.size());
+
+    List<TokenValidationResult> results = new ArrayList<>(tokens.size());
+    List<String> emails = new ArrayList<>(tokens.size());
+    Set<String> uniqueEmails = new HashSet<>();
+    for (String token : tokens) {
+      try {
+        Claims claims = parseClaims(token);
+        UserWithRolesDto fromClaims = fromClaims(claims);
+        if (fromClaims != null) {
+          results.add(TokenValidationResult.valid(fromClaims));
+          emails.add(null);
+        } else {
+          results.add(null);
+          emails.add(claims.getSubject());
+          uniqueEmails.add(claims.getSubject());
+        }
+      } catch (InvalidTokenException e) {
+        results.add(TokenValidationResult.invalid(e.getMessage()));
+        emails.add(null);
+      }
+    }
+    if (uniqueEmails.isEmpty()) {
+      return results;
+    }
+
+    Map<String, UserCredential> usersByEmail = userCache.findAllByEmails(uniqueEmails)
+        .stream()
+        .collect(Collectors.toMap(UserCredential::getEmail, Function.identity()));
+
+    for (int i = 0; i < tokens.size(); i++) {
+      String email = emails.get(i);
+      if (email == null) {
+        continue;
+      }
+      UserCredential user = usersByEmail.get(email);
+      if (user == null) {
+        results.set(i, TokenValidationResult.invalid("User not found" + email));
+      } else {
+        results.set(i, TokenValidationResult.valid(toUserWithRoles(user)));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Отзывает токен. Токен сразу перестает приниматься этим экземпляром сервиса, а через топик
+   * {@code token_revoked} - остальными экземплярами и шлюзом.
+   *
+   * @param token токен для отзыва
+   * @throws InvalidTokenException если токен недействителен, уже отозван или выдан без
+   *                               {@code jti}
+   */
+  public void revokeToken(String token) {
+    Claims claims = parseClaims(token);
+    String tokenId = claims.getId();
+    if (tokenId == null) {
+      throw new InvalidTokenException("Token has no id and cannot be revoked");
+    }
+    long expiresAt = claims.getExpiration().getTime();
+    tokenRevocationList.revoke(tokenId, expiresAt);
+    kafkaTemplate.send(TokenRevocationListener.TOKEN_REVOKED_TOPIC, tokenId,
+            String.valueOf(expiresAt))
+        .whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            log.error("Failed to publish revocation of token {}: {}", tokenId,
+                throwable.getMessage());
+          }
+        });
+    log.info("Token {} revoked for user: {}", tokenId, claims.getSubject());
+  }
+
   /**
    * Аутентифицирует пользователя и возвращает сгенерированный токен.
    *
@@ -122,15 +228,67 @@ public class AuthService {
         new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
     );
 
-    var userDetails = (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
-    String token = generateToken(userDetails.getUsername());
+    var user = (UserCredential) authentication.getPrincipal();
+    String token = generateToken(user);
 
-    log.info("User authenticated successfully: {}", userDetails.getUsername());
+    log.info("User authenticated successfully: {}", user.getEmail());
     return token;
   }
 
-  private Key getSigninKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-    return Keys.hmacShaKeyFor(keyBytes);
+  /**
+   * Возвращает открытые ключи проверки токенов в формате JWK Set.
+   *
+   * @return JWK Set с открытыми ключами
+   */
+  public Map<String, Object> getJwks() {
+    return jwtKeyRing.getJwks();
+  }
+
+  private UserWithRolesDto toUserWithRoles(UserCredential user) {
+    return new UserWithRolesDto(user.getId(), user.getEmail(), List.of(user.getRole().name()));
+  }
+
+  /**
+   * Строит информацию о пользователе по claims токена, если токен выдан недавно.
+   *
+   * @param claims claims проверенного токена
+   * @return информация о пользователе или {@code null}, если пользователя нужно загрузить из базы
+   * данных
+   */
+  private UserWithRolesDto fromClaims(Claims claims) {
+    Number userId = claims.get(USER_ID_CLAIM, Number.class);
+    String role = claims.get(ROLE_CLAIM, String.class);
+    Date issuedAt = claims.getIssuedAt();
+    if (userId == null || role == null || issuedAt == null) {
+      return null;
+    }
+    long age = System.currentTimeMillis() - issuedAt.getTime();
+    if (age > claimsTrustedForInSeconds * 1000) {
+      return null;
+    }
+    return new UserWithRolesDto(userId.intValue(), claims.getSubject(), List.of(role));
+  }
+
+  /**
+   * Проверяет подпись и срок действия токена, а также то, что токен не отозван, и возвращает его
+   * claims.
+   *
+   * @param token токен для проверки
+   * @return claims токена
+   * @throws InvalidTokenException если токен недействителен или отозван
+   */
+  private Claims parseClaims(String token) {
+    Claims claims;
+    try {
+      claims = jwtKeyRing.parse(token);
+    } catch (Exception e) {
+      log.error("Token validation failed: {}", e.getMessage());
+      throw new InvalidTokenException("Invalid token: " + e.getMessage());
+    }
+    if (tokenRevocationList.isRevoked(claims.getId())) {
+      log.warn("Revoked token {} presented for user: {}", claims.getId(), claims.getSubject());
+      throw new InvalidTokenException("Invalid token: token revoked");
+    }
+    return claims;
   }
 }
@@ -0,0 +1,110 @@
+package ru.baysarov.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.baysarov.exception.PasswordHashingOverloadedException;
+
+/**
+ * {@link PasswordEncoder}, выполняющий хэширование и проверку паролей в отдельном ограниченном
+ * пуле потоков.
+ * <p>
+ * BCrypt намеренно дорог, и при всплеске входов он занимает все потоки обработки запросов, так
+ * что даже дешевая проверка токена ждет в очереди. Здесь одновременно хэшируется не больше
+ * {@code threads} паролей, еще не больше {@code queueCapacity} ждут в очереди; поток запроса при
+ * этом не занимает процессор. Если очередь заполнена, запрос сразу отклоняется с
+ * {@link PasswordHashingOverloadedException} (ответ 503), поэтому число потоков запросов,
+ * ожидающих хэширования, ограничено и остальные запросы обслуживаются без задержек.
+ * <p>
+ * Метрики пула, в том числе глубина очереди ({@code executor.queued}), публикуются как
+ * {@code executor.*} с тегом {@code name=password-hashing}, число отклоненных запросов - как
+ * {@code auth.password-hashing.rejected}.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+  private static final String EXECUTOR_NAME = "password-hashing";
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor threadPool;
+  private final ExecutorService executor;
+  private final Counter rejected;
+
+  /**
+   * Конструктор для BoundedPasswordEncoder.
+   *
+   * @param delegate      кодировщик, выполняющий хэширование
+   * @param threads       количество потоков хэширования
+   * @param queueCapacity максимальное количество ожидающих операций
+   * @param meterRegistry реестр метрик
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable,
+              EXECUTOR_NAME + "-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, EXECUTOR_NAME);
+    this.rejected = Counter.builder("auth.password-hashing.rejected")
+        .description("Password hashing requests rejected because the queue was full")
+        .register(meterRegistry);
+    log.info("Password hashing pool: {} threads, queue capacity {}", threads, queueCapacity);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return execute(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return execute(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void close() {
+    threadPool.shutdown();
+  }
+
+  private <T> T execute(Callable<T> task) {
+    try {
+      return executor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      log.warn("Password hashing queue is full, rejecting request");
+      throw new PasswordHashingOverloadedException(
+          "Too many concurrent sign-in requests, try again later");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", cause);
+    }
+  }
+}
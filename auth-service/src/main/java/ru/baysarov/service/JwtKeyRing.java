@@ -0,0 +1,301 @@
+package ru.baysarov.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Набор ключей подписи JWT токенов.
+ * <p>
+ * Ключи декодируются один раз при запуске, парсер токенов создается один раз и используется
+ * повторно. Новые токены подписываются активным ключом, в заголовок {@code kid} записывается его
+ * идентификатор. При проверке ключ выбирается по {@code kid}, поэтому после ротации токены,
+ * подписанные предыдущими ключами, остаются действительными до истечения срока. Токены без
+ * {@code kid}, выданные до появления ротации, проверяются активным секретом HS256.
+ * <p>
+ * При {@code jwt.algorithm} RS256/ES256 (и других асимметричных алгоритмах) токены подписываются
+ * закрытым ключом из {@code jwt.key-pairs}, а открытые ключи публикуются в формате JWKS, так что
+ * сервисы могут проверять токены без общего секрета. Активным считается первый ключ, у которого
+ * задан закрытый ключ; ключи только с открытой частью принимаются при проверке и остаются в JWKS
+ * до истечения выданных ими токенов. Если пары ключей не заданы, при запуске создается временная
+ * пара: она подходит для одного экземпляра сервиса, но не переживает перезапуск.
+ * <p>
+ * При переходе на асимметричную подпись токены HS*, выданные раньше, принимаются, пока
+ * {@code jwt.accept-hmac} включен и не наступил момент {@code jwt.accept-hmac-until}. После этого
+ * любой токен с алгоритмом HS* отклоняется, в том числе без {@code kid} или с {@code kid} ключа
+ * {@code jwt.secret}: иначе знание общего секрета позволило бы выпускать токены и после перехода.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+  private final SignatureAlgorithm algorithm;
+  private final String activeKeyId;
+  private final Key activeKey;
+  private final Key legacyKey;
+  private final boolean acceptHmac;
+  private final Instant acceptHmacUntil;
+  private final Map<String, Key> keys;
+  private final Map<String, Object> jwks;
+  private final JwtParser jwtParser;
+
+  /**
+   * Конструктор для JwtKeyRing.
+   *
+   * @param algorithm       алгоритм подписи новых токенов
+   * @param hmacKeyId       идентификатор ключа HS256 из {@code jwt.secret}
+   * @param secret          секрет HS256 в Base64
+   * @param previousKeys    предыдущие секреты HS256, которые еще принимаются при проверке, в
+   *                        формате {@code kid=секрет}
+   * @param keyPairs        асимметричные ключи в формате {@code kid=закрытый:открытый}, где
+   *                        закрытый ключ задан в PKCS#8, открытый в X.509 (оба в Base64); у
+   *                        выведенных из использования ключей закрытая часть пустая
+   * @param acceptHmac      принимать ли токены HS* при асимметричной подписи
+   * @param acceptHmacUntil момент в формате ISO-8601, после которого токены HS* не принимаются;
+   *                        пустое значение - без ограничения
+   */
+  public JwtKeyRing(@Value("${jwt.algorithm:HS256}") SignatureAlgorithm algorithm,
+      @Value("${jwt.key-id:default}") String hmacKeyId,
+      @Value("${jwt.secret}") String secret,
+      @Value("${jwt.previous-keys:}") List<String> previousKeys,
+      @Value("${jwt.key-pairs:}") List<String> keyPairs,
+      @Value("${jwt.accept-hmac:true}") boolean acceptHmac,
+      @Value("${jwt.accept-hmac-until:}") String acceptHmacUntil) {
+    this.algorithm = algorithm;
+    this.acceptHmac = acceptHmac;
+    this.acceptHmacUntil = acceptHmacUntil.isBlank()
+        ? null : Instant.parse(acceptHmacUntil.trim());
+    if (algorithm.isHmac() && (!acceptHmac || this.acceptHmacUntil != null)) {
+      throw new IllegalArgumentException(
+          "jwt.accept-hmac and jwt.accept-hmac-until require an asymmetric jwt.algorithm");
+    }
+    this.legacyKey = hmacKey(secret);
+
+    Map<String, Key> ring = new HashMap<>();
+    ring.put(hmacKeyId, legacyKey);
+    for (String entry : previousKeys) {
+      if (!entry.isBlank()) {
+        ring.put(keyId(entry), hmacKey(entry.substring(entry.indexOf('=') + 1)));
+      }
+    }
+
+    List<Map<String, String>> publicJwks = new ArrayList<>();
+    if (algorithm.isHmac()) {
+      this.activeKeyId = hmacKeyId;
+      this.activeKey = legacyKey;
+    } else {
+      String firstKeyId = null;
+      PrivateKey firstPrivateKey = null;
+      for (String entry : keyPairs) {
+        if (entry.isBlank()) {
+          continue;
+        }
+        String keyId = keyId(entry);
+        String[] parts = entry.substring(entry.indexOf('=') + 1).split(":", -1);
+        if (parts.length != 2 || parts[1].isBlank()) {
+          throw new IllegalArgumentException("Expected kid=private:public in jwt.key-pairs");
+        }
+        PublicKey publicKey = publicKey(parts[1]);
+        addPublicKey(ring, publicJwks, keyId, publicKey);
+        if (firstPrivateKey == null && !parts[0].isBlank()) {
+          firstKeyId = keyId;
+          firstPrivateKey = privateKey(parts[0]);
+        }
+      }
+      if (firstPrivateKey == null) {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        firstKeyId = "ephemeral-" + UUID.randomUUID();
+        firstPrivateKey = keyPair.getPrivate();
+        addPublicKey(ring, publicJwks, firstKeyId, keyPair.getPublic());
+        log.warn("No {} key pairs configured, generated ephemeral key {}", algorithm,
+            firstKeyId);
+      }
+      this.activeKeyId = firstKeyId;
+      this.activeKey = firstPrivateKey;
+    }
+    this.keys = Map.copyOf(ring);
+    this.jwks = Map.of("keys", List.copyOf(publicJwks));
+
+    this.jwtParser = Jwts.parserBuilder()
+        .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+          @Override
+          public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return resolve(header);
+          }
+        })
+        .build();
+    log.info("JWT key ring initialized, algorithm: {}, active key: {}, accepted keys: {}, "
+            + "HMAC accepted: {}{}", algorithm, activeKeyId, keys.keySet(), acceptHmac,
+        this.acceptHmacUntil == null ? "" : " until " + this.acceptHmacUntil);
+  }
+
+  /**
+   * Создает построитель токена, подписываемого активным ключом.
+   *
+   * @return построитель токена с заголовком {@code kid} и ключом подписи
+   */
+  public JwtBuilder builder() {
+    return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+        .signWith(activeKey, algorithm);
+  }
+
+  /**
+   * Проверяет подпись и срок действия токена.
+   *
+   * @param token токен для проверки
+   * @return claims токена
+   * @throws io.jsonwebtoken.JwtException если токен недействителен
+   */
+  public Claims parse(String token) {
+    return jwtParser.parseClaimsJws(token).getBody();
+  }
+
+  /**
+   * Возвращает открытые ключи в формате JWK Set (RFC 7517). Для HS256 набор пустой.
+   *
+   * @return JWK Set с открытыми ключами
+   */
+  public Map<String, Object> getJwks() {
+    return jwks;
+  }
+
+  /**
+   * Проверяет, принимаются ли еще токены, подписанные HS*.
+   *
+   * @return true, если токены HS* принимаются
+   */
+  public boolean isHmacAccepted() {
+    return algorithm.isHmac()
+        || acceptHmac && (acceptHmacUntil == null || Instant.now().isBefore(acceptHmacUntil));
+  }
+
+  private Key resolve(JwsHeader header) {
+    if (SignatureAlgorithm.forName(header.getAlgorithm()).isHmac() && !isHmacAccepted()) {
+      throw new SignatureException("HMAC signed tokens are no longer accepted");
+    }
+    String keyId = header.getKeyId();
+    if (keyId == null) {
+      return legacyKey;
+    }
+    Key key = keys.get(keyId);
+    if (key == null) {
+      throw new SignatureException("Unknown signing key: " + keyId);
+    }
+    return key;
+  }
+
+  private void addPublicKey(Map<String, Key> ring, List<Map<String, String>> publicJwks,
+      String keyId, PublicKey publicKey) {
+    if (ring.putIfAbsent(keyId, publicKey) != null) {
+      throw new IllegalArgumentException("Duplicate JWT key id: " + keyId);
+    }
+    publicJwks.add(toJwk(keyId, publicKey));
+  }
+
+  private Map<String, String> toJwk(String keyId, PublicKey publicKey) {
+    Map<String, String> jwk = new LinkedHashMap<>();
+    if (publicKey instanceof RSAPublicKey rsaKey) {
+      jwk.put("kty", "RSA");
+      jwk.put("kid", keyId);
+      jwk.put("use", "sig");
+      jwk.put("alg", algorithm.isRsa() ? algorithm.getValue() : "RS256");
+      jwk.put("n", base64Url(rsaKey.getModulus(), 0));
+      jwk.put("e", base64Url(rsaKey.getPublicExponent(), 0));
+    } else if (publicKey instanceof ECPublicKey ecKey) {
+      int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+      int coordinateLength = (fieldSize + 7) / 8;
+      jwk.put("kty", "EC");
+      jwk.put("kid", keyId);
+      jwk.put("use", "sig");
+      jwk.put("alg", fieldSize == 256 ? "ES256" : fieldSize == 384 ? "ES384" : "ES512");
+      jwk.put("crv", fieldSize == 521 ? "P-521" : "P-" + fieldSize);
+      jwk.put("x", base64Url(ecKey.getW().getAffineX(), coordinateLength));
+      jwk.put("y", base64Url(ecKey.getW().getAffineY(), coordinateLength));
+    } else {
+      throw new IllegalArgumentException("Unsupported public key type: " + publicKey);
+    }
+    return Collections.unmodifiableMap(jwk);
+  }
+
+  private PublicKey publicKey(String base64) {
+    try {
+      return keyFactory().generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(base64)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid public key in jwt.key-pairs", e);
+    }
+  }
+
+  private PrivateKey privateKey(String base64) {
+    try {
+      return keyFactory().generatePrivate(
+          new PKCS8EncodedKeySpec(Decoders.BASE64.decode(base64)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid private key in jwt.key-pairs", e);
+    }
+  }
+
+  private KeyFactory keyFactory() throws GeneralSecurityException {
+    return KeyFactory.getInstance(algorithm.isRsa() ? "RSA" : "EC");
+  }
+
+  private static String keyId(String entry) {
+    int separator = entry.indexOf('=');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Expected kid=value, got key without id");
+    }
+    return entry.substring(0, separator).trim();
+  }
+
+  private static Key hmacKey(String secret) {
+    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret.trim()));
+  }
+
+  /**
+   * Кодирует число без знака в base64url; при {@code length > 0} дополняет нулями слева до
+   * заданной длины, как требуется для координат EC ключа.
+   */
+  private static String base64Url(BigInteger value, int length) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    if (length > bytes.length) {
+      byte[] padded = new byte[length];
+      System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+      bytes = padded;
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+}
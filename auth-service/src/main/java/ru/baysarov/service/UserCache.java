@@ -0,0 +1,193 @@
+package ru.baysarov.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.baysarov.enums.Role;
+import ru.baysarov.model.UserCredential;
+import ru.baysarov.repository.UserRepository;
+
+/**
+ * Ограниченный по размеру кэш пользователей поверх {@link UserRepository}.
+ * <p>
+ * Пользователи хранятся в виде неизменяемых снимков с ключами по идентификатору и по адресу
+ * электронной почты; наружу каждый раз отдается новый отсоединенный {@link UserCredential}, поэтому
+ * изменение возвращенного объекта не меняет кэш. Отсутствующие пользователи не кэшируются.
+ * <p>
+ * Запись живет не дольше {@code user-cache.expire-after-write} секунд: это верхняя граница
+ * устаревания для изменений, сделанных другими экземплярами сервиса. Изменения на этом экземпляре
+ * должны сопровождаться вызовом {@link #invalidate(int, String)}. Статистика попаданий и промахов
+ * публикуется в actuator как метрики {@code cache.*} с тегами {@code cache=users-by-id} и
+ * {@code cache=users-by-email}.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+  private final UserRepository userRepository;
+  private final Cache<Integer, CachedUser> usersById;
+  private final Cache<String, CachedUser> usersByEmail;
+
+  /**
+   * Конструктор для UserCache.
+   *
+   * @param userRepository           репозиторий для работы с пользователями
+   * @param maximumSize              максимальное количество пользователей в каждом из индексов
+   * @param expireAfterWriteInSeconds время жизни записи
+   * @param meterRegistry            реестр метрик
+   */
+  public UserCache(UserRepository userRepository,
+      @Value("${user-cache.maximum-size:10000}") long maximumSize,
+      @Value("${user-cache.expire-after-write:600}") long expireAfterWriteInSeconds,
+      MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    Duration expireAfterWrite = Duration.ofSeconds(expireAfterWriteInSeconds);
+    this.usersById = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+    this.usersByEmail = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users-by-id");
+    CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users-by-email");
+  }
+
+  /**
+   * Находит пользователя по адресу электронной почты.
+   *
+   * @param email адрес электронной почты пользователя
+   * @return пользователь или пустой Optional, если пользователь не найден
+   */
+  public Optional<UserCredential> findByEmail(String email) {
+    CachedUser cached = usersByEmail.getIfPresent(email);
+    if (cached == null) {
+      cached = userRepository.findByEmail(email).map(this::index).orElse(null);
+    }
+    return Optional.ofNullable(cached).map(CachedUser::toUserCredential);
+  }
+
+  /**
+   * Находит пользователя по идентификатору.
+   *
+   * @param id идентификатор пользователя
+   * @return пользователь или пустой Optional, если пользователь не найден
+   */
+  public Optional<UserCredential> findById(int id) {
+    CachedUser cached = usersById.getIfPresent(id);
+    if (cached == null) {
+      cached = userRepository.findById(id).map(this::index).orElse(null);
+    }
+    return Optional.ofNullable(cached).map(CachedUser::toUserCredential);
+  }
+
+  /**
+   * Находит пользователей по идентификаторам. Пользователи, которых нет в кэше, загружаются одним
+   * запросом.
+   *
+   * @param ids идентификаторы пользователей
+   * @return найденные пользователи; не найденные идентификаторы пропускаются
+   */
+  public List<UserCredential> findAllByIds(Collection<Integer> ids) {
+    Map<Integer, CachedUser> found = usersById.getAllPresent(ids);
+    List<UserCredential> users = new ArrayList<>(found.size());
+    found.values().forEach(cached -> users.add(cached.toUserCredential()));
+    Set<Integer> missing = new HashSet<>(ids);
+    missing.removeAll(found.keySet());
+    if (!missing.isEmpty()) {
+      userRepository.findAllByIdIn(missing)
+          .forEach(user -> users.add(index(user).toUserCredential()));
+    }
+    return users;
+  }
+
+  /**
+   * Находит пользователей по адресам электронной почты. Пользователи, которых нет в кэше,
+   * загружаются одним запросом.
+   *
+   * @param emails адреса электронной почты пользователей
+   * @return найденные пользователи; не найденные адреса пропускаются
+   */
+  public List<UserCredential> findAllByEmails(Collection<String> emails) {
+    Map<String, CachedUser> found = usersByEmail.getAllPresent(emails);
+    List<UserCredential> users = new ArrayList<>(found.size());
+    found.values().forEach(cached -> users.add(cached.toUserCredential()));
+    Set<String> missing = new HashSet<>(emails);
+    missing.removeAll(found.keySet());
+    if (!missing.isEmpty()) {
+      userRepository.findAllByEmailIn(missing)
+          .forEach(user -> users.add(index(user).toUserCredential()));
+    }
+    return users;
+  }
+
+  /**
+   * Удаляет пользователя из кэша. Внутри транзакции удаление повторяется после ее фиксации, чтобы
+   * параллельное чтение не вернуло в кэш данные, которые транзакция как раз меняет.
+   *
+   * @param id    идентификатор пользователя
+   * @param email адрес электронной почты пользователя
+   */
+  public void invalidate(int id, String email) {
+    evict(id, email);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict(id, email);
+        }
+      });
+    }
+  }
+
+  private void evict(int id, String email) {
+    usersById.invalidate(id);
+    if (email != null) {
+      usersByEmail.invalidate(email);
+    }
+    log.debug("User {} evicted from cache", id);
+  }
+
+  /**
+   * Создает снимок загруженного пользователя и кладет его в оба индекса.
+   */
+  private CachedUser index(UserCredential user) {
+    CachedUser cached = CachedUser.of(user);
+    usersById.put(cached.id(), cached);
+    usersByEmail.put(cached.email(), cached);
+    return cached;
+  }
+
+  /**
+   * Неизменяемый снимок пользователя.
+   */
+  private record CachedUser(int id, String firstName, String lastName, String email,
+                            String password, Role role) {
+
+    static CachedUser of(UserCredential user) {
+      return new CachedUser(user.getId(), user.getFirstName(), user.getLastName(),
+          user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    UserCredential toUserCredential() {
+      return new UserCredential(id, firstName, lastName, email, password, role);
+    }
+  }
+}
@@ -1,9 +1,11 @@
 package ru.baysarov.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.baysarov.dto.RegisterRequest;
 import ru.baysarov.dto.UserDto;
+import ru.baysarov.dto.UserWithRolesDto;
 import ru.baysarov.enums.Role;
+import ru.baysarov.event.UserChangedEvent;
 import ru.baysarov.exception.UserAlreadyExistsException;
 import ru.baysarov.exception.UserNotFoundException;
 import ru.baysarov.model.UserCredential;
@@ -29,10 +33,15 @@ public class UserService implements UserDetailsService {
 
   private final PasswordEncoder passwordEncoder;
   private final UserRepository userRepository;
+  private final UserCache userCache;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public UserService(PasswordEncoder passwordEncoder, UserRepository repository) {
+  public UserService(PasswordEncoder passwordEncoder, UserRepository repository,
+      UserCache userCache, ApplicationEventPublisher eventPublisher) {
     this.passwordEncoder = passwordEncoder;
     this.userRepository = repository;
+    this.userCache = userCache;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -45,13 +54,12 @@ public class UserService implements UserDetailsService {
   @Override
   public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
     log.info("Loading user by email: {}", email);
-    UserCredential user = userRepository.findByEmail(email).orElseThrow(() -> {
+    UserCredential user = userCache.findByEmail(email).orElseThrow(() -> {
       log.error("User {} not found", email);
       return new UsernameNotFoundException("User " + email + " not found");
     });
 
-    return new org.springframework.security.core.userdetails.User(user.getEmail(),
-        user.getPassword(), new ArrayList<>());
+    return user;
   }
 
   /**
@@ -76,6 +84,7 @@ public class UserService implements UserDetailsService {
     userCredential.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
     userCredential.setRole(Role.USER);
     userRepository.save(userCredential);
+    userChanged(userCredential);
     log.info("User saved successfully: {}", registerRequest.getEmail());
   }
 
@@ -88,7 +97,7 @@ public class UserService implements UserDetailsService {
    */
   public UserDto findByEmail(String email) {
     log.info("Finding user by email: {}", email);
-    UserCredential user = userRepository.findByEmail(email).orElseThrow(() -> {
+    UserCredential user = userCache.findByEmail(email).orElseThrow(() -> {
       log.error("User not found for email: {}", email);
       return new UserNotFoundException("User not found");
     });
@@ -105,7 +114,7 @@ public class UserService implements UserDetailsService {
    */
   public UserDto findById(int id) {
     log.info("Finding user by id: {}", id);
-    UserCredential user = userRepository.findById(id).orElseThrow(() -> {
+    UserCredential user = userCache.findById(id).orElseThrow(() -> {
       log.error("User not found for id: {}", id);
       return new UserNotFoundException("User not found");
     });
@@ -113,6 +122,34 @@ public class UserService implements UserDetailsService {
     return convertToDto(user);
   }
 
+  /**
+   * Находит пользователей по идентификаторам. Отсутствующие в кэше пользователи загружаются одним
+   * запросом к базе данных.
+   *
+   * @param ids идентификаторы пользователей
+   * @return список найденных пользователей; не найденные идентификаторы пропускаются
+   */
+  public List<UserDto> findAllByIds(Collection<Integer> ids) {
+    log.info("Finding {} users by ids", ids.size());
+    return userCache.findAllByIds(ids).stream()
+        .map(this::convertToDto)
+        .toList();
+  }
+
+  /**
+   * Находит пользователей по адресам электронной почты. Отсутствующие в кэше пользователи
+   * загружаются одним запросом к базе данных.
+   *
+   * @param emails адреса электронной почты пользователей
+   * @return список найденных пользователей; не найденные адреса пропускаются
+   */
+  public List<UserDto> findAllByEmails(Collection<String> emails) {
+    log.info("Finding {} users by emails", emails.size());
+    return userCache.findAllByEmails(emails).stream()
+        .map(this::convertToDto)
+        .toList();
+  }
+
   /**
    * Получает роли пользователя по его адресу электронной почты.
    *
@@ -122,7 +159,7 @@ public class UserService implements UserDetailsService {
    */
   public List<String> getUserRoles(String email) {
     log.info("Getting roles for user: {}", email);
-    UserCredential user = userRepository.findByEmail(email)
+    UserCredential user = userCache.findByEmail(email)
         .orElseThrow(() -> new UserNotFoundException("User not found: " + email));
 
     List<String> roles = new ArrayList<>();
@@ -132,6 +169,34 @@ public class UserService implements UserDetailsService {
     return roles;
   }
 
+  /**
+   * Находит пользователя вместе с его ролями по адресу электронной почты одним запросом к базе
+   * данных.
+   *
+   * @param email адрес электронной почты пользователя
+   * @return объект {@link UserWithRolesDto} с информацией о пользователе и его ролях
+   * @throws UserNotFoundException если пользователь не найден
+   */
+  public UserWithRolesDto findWithRolesByEmail(String email) {
+    log.info("Finding user with roles by email: {}", email);
+    UserCredential user = userCache.findByEmail(email)
+        .orElseThrow(() -> new UserNotFoundException("User not found: " + email));
+
+    return new UserWithRolesDto(user.getId(), user.getEmail(),
+        List.of(user.getRole().toString()));
+  }
+
+  /**
+   * Сбрасывает пользователя в кэше и публикует {@link UserChangedEvent}. Вызывается каждым путем,
+   * который создает пользователя или меняет его данные или роль.
+   *
+   * @param user пользователь после изменения
+   */
+  private void userChanged(UserCredential user) {
+    userCache.invalidate(user.getId(), user.getEmail());
+    eventPublisher.publishEvent(UserChangedEvent.changed(user));
+  }
+
   /**
    * Преобразует объект {@link UserCredential} в {@link UserDto}.
    *
@@ -142,7 +207,7 @@ public class UserService implements UserDetailsService {
     UserDto userDto = new UserDto();
     userDto.setEmail(user.getEmail());
     userDto.setId(user.getId());
-    log.info("User found: {}", userDto);
+    log.debug("User found: {}", userDto);
     return userDto;
   }
 }
@@ -1,27 +1,38 @@
 package ru.baysarov.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.baysarov.dto.AuthRequest;
 import ru.baysarov.dto.RegisterRequest;
-import ru.baysarov.dto.UserDto;
+import ru.baysarov.dto.TokenBatchRequest;
+import ru.baysarov.dto.TokenValidationResult;
+import ru.baysarov.dto.UserWithRolesDto;
+import ru.baysarov.exception.GlobalExceptionHandler;
+import ru.baysarov.exception.InvalidTokenException;
+import ru.baysarov.exception.PasswordHashingOverloadedException;
 import ru.baysarov.service.AuthService;
 import ru.baysarov.service.UserService;
 
@@ -41,7 +52,9 @@ public class AuthControllerTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+    mockMvc = MockMvcBuilders.standaloneSetup(authController)
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
   }
 
   @Test
@@ -87,6 +100,22 @@ public class AuthControllerTest {
         .andExpect(jsonPath("$.token").value(token));
   }
 
+  @Test
+  void testGetToken_PasswordHashingOverloaded() throws Exception {
+    AuthRequest authRequest = new AuthRequest();
+    authRequest.setEmail("test@bk.ru");
+    authRequest.setPassword("password");
+
+    when(authService.authenticateAndReturnToken(any(AuthRequest.class)))
+        .thenThrow(new PasswordHashingOverloadedException("Too many concurrent sign-in requests"));
+
+    mockMvc.perform(post("/auth/token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(new ObjectMapper().writeValueAsString(authRequest)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+  }
+
   @Test
   void testGetToken_ValidationError() throws Exception {
     AuthRequest authRequest = new AuthRequest();
@@ -101,7 +130,7 @@ public class AuthControllerTest {
   @Test
   void testValidateToken_Success() throws Exception {
     String token = "valid_token";
-    UserDto userDto = new UserDto();
+    UserWithRolesDto userDto = new UserWithRolesDto();
     when(authService.validateToken(anyString())).thenReturn(userDto);
 
     mockMvc.perform(get("/auth/validateToken")
@@ -119,4 +148,72 @@ public class AuthControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  void testValidateToken_Rejected() throws Exception {
+    String token = "expired_token";
+    when(authService.validateToken(anyString()))
+        .thenThrow(new InvalidTokenException("Invalid token: expired"));
+
+    mockMvc.perform(get("/auth/validateToken")
+            .param("token", token))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void testValidateTokens_Success() throws Exception {
+    TokenBatchRequest request = new TokenBatchRequest(List.of("valid_token", "invalid_token"));
+    when(authService.validateTokens(request.getTokens())).thenReturn(List.of(
+        TokenValidationResult.valid(new UserWithRolesDto(1, "test@bk.ru", List.of("USER"))),
+        TokenValidationResult.invalid("Invalid token")));
+
+    mockMvc.perform(post("/auth/validateTokens")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(new ObjectMapper().writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].valid").value(true))
+        .andExpect(jsonPath("$[0].user.email").value("test@bk.ru"))
+        .andExpect(jsonPath("$[0].user.roles[0]").value("USER"))
+        .andExpect(jsonPath("$[1].valid").value(false));
+  }
+
+  @Test
+  void testValidateTokens_ValidationError() throws Exception {
+    TokenBatchRequest request = new TokenBatchRequest(List.of());
+
+    mockMvc.perform(post("/auth/validateTokens")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(new ObjectMapper().writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void testGetJwks_Success() throws Exception {
+    when(authService.getJwks()).thenReturn(Map.of("keys", List.of(
+        Map.of("kty", "EC", "kid", "k1", "crv", "P-256", "x", "x-value", "y", "y-value"))));
+
+    mockMvc.perform(get("/auth/.well-known/jwks.json"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", containsString("public")))
+        .andExpect(jsonPath("$.keys[0].kid").value("k1"))
+        .andExpect(jsonPath("$.keys[0].kty").value("EC"));
+  }
+
+  @Test
+  void testLogout_Success() throws Exception {
+    mockMvc.perform(post("/auth/logout")
+            .header("Authorization", "Bearer valid_token"))
+        .andExpect(status().isNoContent());
+
+    verify(authService, times(1)).revokeToken("valid_token");
+  }
+
+  @Test
+  void testLogout_InvalidToken() throws Exception {
+    doThrow(new InvalidTokenException("Invalid token: expired"))
+        .when(authService).revokeToken("expired_token");
+
+    mockMvc.perform(post("/auth/logout")
+            .header("Authorization", "Bearer expired_token"))
+        .andExpect(status().isUnauthorized());
+  }
 }
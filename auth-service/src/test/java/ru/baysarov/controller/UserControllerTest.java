@@ -1,9 +1,13 @@
 package ru.baysarov.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
@@ -12,9 +16,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.baysarov.dto.UserDto;
+import ru.baysarov.dto.UserWithRolesDto;
+import ru.baysarov.exception.UserNotFoundException;
 import ru.baysarov.service.UserService;
 
 public class UserControllerTest {
@@ -93,4 +100,72 @@ public class UserControllerTest {
 
     verify(userService, times(1)).getUserRoles(email);
   }
+
+  @Test
+  void testGetUserWithRoles_Success() throws Exception {
+    String email = "test@bk.ru";
+    when(userService.findWithRolesByEmail(email))
+        .thenReturn(new UserWithRolesDto(1, email, List.of("MANAGER")));
+
+    mockMvc.perform(get("/user/{email}/with-roles", email))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.roles[0]").value("MANAGER"));
+
+    verify(userService, times(1)).findWithRolesByEmail(email);
+  }
+
+  @Test
+  void testGetUserWithRoles_NotFound() throws Exception {
+    String email = "missing@bk.ru";
+    when(userService.findWithRolesByEmail(email))
+        .thenThrow(new UserNotFoundException("User not found: " + email));
+
+    mockMvc.perform(get("/user/{email}/with-roles", email))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void testGetUsersByIds_Success() throws Exception {
+    UserDto userDto = new UserDto();
+    userDto.setId(1);
+    userDto.setEmail("test@bk.ru");
+    when(userService.findAllByIds(List.of(1, 2))).thenReturn(List.of(userDto));
+
+    mockMvc.perform(post("/user/batch/ids")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\":[1,2]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(1));
+
+    verify(userService, times(1)).findAllByIds(List.of(1, 2));
+  }
+
+  @Test
+  void testGetUsersByIds_EmptyRequest() throws Exception {
+    mockMvc.perform(post("/user/batch/ids")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\":[]}"))
+        .andExpect(status().isBadRequest());
+
+    verify(userService, never()).findAllByIds(any());
+  }
+
+  @Test
+  void testGetUsersByEmails_Success() throws Exception {
+    UserDto userDto = new UserDto();
+    userDto.setId(1);
+    userDto.setEmail("test@bk.ru");
+    when(userService.findAllByEmails(List.of("test@bk.ru", "missing@bk.ru")))
+        .thenReturn(List.of(userDto));
+
+    mockMvc.perform(post("/user/batch/emails")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"emails\":[\"test@bk.ru\",\"missing@bk.ru\"]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].email").value("test@bk.ru"));
+
+    verify(userService, times(1)).findAllByEmails(List.of("test@bk.ru", "missing@bk.ru"));
+  }
 }
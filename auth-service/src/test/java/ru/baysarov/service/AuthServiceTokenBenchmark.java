@@ -0,0 +1,122 @@
+package ru.baysarov.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.baysarov.dto.UserWithRolesDto;
+import ru.baysarov.enums.Role;
+import ru.baysarov.model.UserCredential;
+
+/**
+ * Измеряет пропускную способность генерации и проверки токенов с заранее подготовленными
+ * ключами {@link JwtKeyRing} для HS256 и ES256.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuthServiceTokenBenchmark {
+
+  private static final String ACTIVE_SECRET =
+      "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+  private static final String PREVIOUS_SECRET =
+      "4B6150645367566B5970337336763979244226452948404D635166546A576E5A";
+
+  private UserCredential user;
+  private AuthService authService;
+  private JwtKeyRing keyRing;
+  private String activeToken;
+  private String previousToken;
+  private AuthService es256AuthService;
+  private JwtKeyRing es256KeyRing;
+  private String es256Token;
+
+  @Setup
+  public void setUp() {
+    user = UserCredential.builder().id(1).email("user@example.com").role(Role.USER).build();
+    keyRing = new JwtKeyRing(SignatureAlgorithm.HS256, "k2", ACTIVE_SECRET,
+        List.of("k1=" + PREVIOUS_SECRET), List.of(), true, "");
+    authService = new AuthService(null, null, keyRing, revocationList(), null);
+    authService.setExpirationTimeInSeconds(86400);
+    authService.setClaimsTrustedForInSeconds(86400);
+    activeToken = authService.generateToken(user);
+
+    AuthService previousService = new AuthService(null, null,
+        new JwtKeyRing(SignatureAlgorithm.HS256, "k1", PREVIOUS_SECRET, List.of(), List.of(),
+            true, ""),
+        revocationList(), null);
+    previousService.setExpirationTimeInSeconds(86400);
+    previousToken = previousService.generateToken(user);
+
+    es256KeyRing = new JwtKeyRing(SignatureAlgorithm.ES256, "k2", ACTIVE_SECRET, List.of(),
+        List.of(), true, "");
+    es256AuthService = new AuthService(null, null, es256KeyRing, revocationList(), null);
+    es256AuthService.setExpirationTimeInSeconds(86400);
+    es256Token = es256AuthService.generateToken(user);
+  }
+
+  @Benchmark
+  public String generate() {
+    return authService.generateToken(user);
+  }
+
+  @Benchmark
+  public Claims validateActiveKey() {
+    return keyRing.parse(activeToken);
+  }
+
+  @Benchmark
+  public UserWithRolesDto validateTokenFromClaims() {
+    return authService.validateToken(activeToken);
+  }
+
+  @Benchmark
+  public Claims validatePreviousKey() {
+    return keyRing.parse(previousToken);
+  }
+
+  @Benchmark
+  public String generateEs256() {
+    return es256AuthService.generateToken(user);
+  }
+
+  @Benchmark
+  public Claims validateEs256() {
+    return es256KeyRing.parse(es256Token);
+  }
+
+  private static TokenRevocationList revocationList() {
+    TokenRevocationList revocationList = new TokenRevocationList(100_000, 0.001, Duration.ofMinutes(10));
+    long expiresAt = System.currentTimeMillis() + 86_400_000;
+    for (int i = 0; i < 10_000; i++) {
+      revocationList.revoke("revoked-" + i, expiresAt);
+    }
+    return revocationList;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(AuthServiceTokenBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -33,6 +33,14 @@ public class KafkaConsumerConfig {
     return factory;
   }
 
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> userChangedListenerFactory() {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(userChangedConsumerFactory());
+    return factory;
+  }
+
   @Bean
   public ConsumerFactory<String, TaskDto> taskDtoConsumerFactory() {
     return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
@@ -45,6 +53,21 @@ public class KafkaConsumerConfig {
         timeEntryDtoJsonDeserializer());
   }
 
+  /**
+   * Потребитель без группы: разделы топика изменений пользователей назначаются слушателю
+   * вручную и читаются с начала (см. {@link KafkaPartitionAssigner}), смещения не фиксируются.
+   */
+  @Bean
+  public ConsumerFactory<String, String> userChangedConsumerFactory() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
+        "localhost:9097,localhost:9098,localhost:9099");
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+        new StringDeserializer());
+  }
+
   @Bean
   public Map<String, Object> consumerConfigs() {
     Map<String, Object> props = new HashMap<>();
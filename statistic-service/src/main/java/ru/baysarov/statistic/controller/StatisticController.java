@@ -68,7 +68,7 @@ public class StatisticController {
       @RequestParam(required = false) LocalDate endDate) {
 
     log.info("Generating time report for team. User: {}", email);
-    List<String> roles = userService.getUserRoles(email);
+    List<String> roles = userService.getUserWithRoles(email).getRoles();
     if (!roles.contains("MANAGER")) {
       log.warn("User {} is not a manager, access denied.", email);
       return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
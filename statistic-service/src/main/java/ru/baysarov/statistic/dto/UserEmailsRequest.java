@@ -0,0 +1,19 @@
+package ru.baysarov.statistic.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запрос пакетного получения пользователей по адресам электронной почты.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserEmailsRequest {
+
+  private List<String> emails;
+}
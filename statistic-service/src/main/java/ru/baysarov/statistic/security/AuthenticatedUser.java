@@ -0,0 +1,46 @@
+package ru.baysarov.statistic.security;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Пользователь текущего запроса, переданный шлюзом в подписанных заголовках.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser {
+
+  static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+  private final int id;
+  private final String email;
+  private final List<String> roles;
+
+  /**
+   * Возвращает пользователя текущего запроса, если его данные пришли от шлюза.
+   *
+   * @return пользователь текущего запроса или {@code null}
+   */
+  public static AuthenticatedUser current() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return null;
+    }
+    return (AuthenticatedUser) attributes.getAttribute(REQUEST_ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST);
+  }
+
+  /**
+   * Возвращает пользователя текущего запроса, если у него указанный email.
+   *
+   * @param email email пользователя
+   * @return пользователь текущего запроса или {@code null}
+   */
+  public static AuthenticatedUser currentWithEmail(String email) {
+    AuthenticatedUser user = current();
+    return user != null && user.getEmail().equalsIgnoreCase(email) ? user : null;
+  }
+}
@@ -0,0 +1,135 @@
+package ru.baysarov.statistic.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Фильтр, проверяющий подписанные шлюзом заголовки с информацией о пользователе.
+ * <p>
+ * Если подпись и время формирования заголовков корректны, пользователь сохраняется в атрибутах
+ * запроса ({@link AuthenticatedUser#current()}), и сервисы используют его идентификатор и роли без
+ * обращения в Auth-сервис. Если шлюзу не известны идентификатор или роли, он подписывает только
+ * email: такой запрос пропускается без пользователя в атрибутах, и роли запрашиваются в
+ * Auth-сервисе.
+ * <p>
+ * Когда задан {@code trusted-headers.secret}, запрос с заголовком {@code X-auth-user-email} без
+ * подписи или с неверной подписью отклоняется с кодом 401: иначе клиент, обратившийся к сервису в
+ * обход шлюза, мог бы выдать себя за любого пользователя. Без секрета заголовки не проверяются.
+ */
+@Component
+@Slf4j
+public class TrustedUserHeadersFilter extends OncePerRequestFilter {
+
+  static final String USER_EMAIL_HEADER = "X-auth-user-email";
+  static final String USER_ID_HEADER = "X-auth-user-id";
+  static final String USER_ROLES_HEADER = "X-auth-user-roles";
+  static final String TIMESTAMP_HEADER = "X-auth-timestamp";
+  static final String SIGNATURE_HEADER = "X-auth-signature";
+
+  private final Mac prototype;
+  private final Duration maxAge;
+
+  /**
+   * Конструктор для TrustedUserHeadersFilter.
+   *
+   * @param secret общий со шлюзом секрет подписи заголовков
+   * @param maxAge максимальный возраст подписанных заголовков
+   */
+  public TrustedUserHeadersFilter(@Value("${trusted-headers.secret:}") String secret,
+      @Value("${trusted-headers.max-age:60s}") Duration maxAge) {
+    this.maxAge = maxAge;
+    if (secret.isBlank()) {
+      this.prototype = null;
+      return;
+    }
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      this.prototype = mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to initialize trusted headers verifier", e);
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String signature = request.getHeader(SIGNATURE_HEADER);
+    String email = request.getHeader(USER_EMAIL_HEADER);
+    if (prototype == null || (signature == null && email == null)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String userId = request.getHeader(USER_ID_HEADER);
+    String roles = request.getHeader(USER_ROLES_HEADER);
+    String timestamp = request.getHeader(TIMESTAMP_HEADER);
+    if (!isValid(signature, email, userId, roles, timestamp)) {
+      log.warn("Rejected request with invalid trusted user headers for user: {}", email);
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid trusted user headers");
+      return;
+    }
+    if (userId == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    List<String> roleList = roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+    request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE,
+        new AuthenticatedUser(Integer.parseInt(userId), email, roleList));
+    filterChain.doFilter(request, response);
+  }
+
+  private boolean isValid(String signature, String email, String userId, String roles,
+      String timestamp) {
+    if (signature == null || email == null || timestamp == null || !isFresh(timestamp)) {
+      return false;
+    }
+    if (userId == null && roles == null) {
+      return isSignatureValid(signature, email, timestamp);
+    }
+    return userId != null && roles != null
+        && isSignatureValid(signature, email, userId, roles, timestamp);
+  }
+
+  private boolean isFresh(String timestamp) {
+    try {
+      Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(timestamp));
+      return Duration.between(issuedAt, Instant.now()).abs().compareTo(maxAge) <= 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Проверяет подпись значений заголовков. Значения подписываются через перевод строки в порядке
+   * email, идентификатор, роли, время; если шлюз передал только email - email и время.
+   */
+  private boolean isSignatureValid(String signature, String... values) {
+    String payload = String.join("\n", values);
+    try {
+      Mac mac = (Mac) prototype.clone();
+      byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+      return MessageDigest.isEqual(expected, Base64.getDecoder().decode(signature));
+    } catch (CloneNotSupportedException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
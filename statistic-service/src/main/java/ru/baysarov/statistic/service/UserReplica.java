@@ -0,0 +1,110 @@
+package ru.baysarov.statistic.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import ru.baysarov.statistic.dto.UserDto;
+
+/**
+ * Локальная копия справочника пользователей Auth-сервиса.
+ * <p>
+ * Наполняется событиями из топика {@code user_changed} (см. {@link UserChangedListener}) и
+ * позволяет отвечать на запросы пользователей без обращения к Auth-сервису. Пока топик не
+ * прочитан до конца (например, сразу после запуска), копия может быть неполной, поэтому
+ * отсутствие пользователя в ней не означает, что пользователя нет: такие запросы выполняются
+ * через {@code UserClient}.
+ * <p>
+ * Копия хранит только идентификатор и email пользователя. Роли в нее не попадают: они нужны для
+ * проверки прав и могут быть изменены в обход событий (например, напрямую в базе Auth-сервиса),
+ * поэтому всегда запрашиваются в Auth-сервисе.
+ */
+@Component
+public class UserReplica {
+
+  private final Map<Integer, UserDto> usersById = new ConcurrentHashMap<>();
+  private final Map<String, UserDto> usersByEmail = new ConcurrentHashMap<>();
+
+  /**
+   * Возвращает пользователя по идентификатору.
+   *
+   * @param id идентификатор пользователя
+   * @return пользователь или {@code null}, если его нет в копии
+   */
+  public UserDto findById(int id) {
+    return usersById.get(id);
+  }
+
+  /**
+   * Возвращает пользователя по адресу электронной почты.
+   *
+   * @param email адрес электронной почты пользователя
+   * @return пользователь или {@code null}, если его нет в копии
+   */
+  public UserDto findByEmail(String email) {
+    return usersByEmail.get(email);
+  }
+
+  /**
+   * Возвращает пользователей, которые есть в копии.
+   *
+   * @param ids идентификаторы пользователей
+   * @return найденные пользователи; отсутствующие в копии идентификаторы пропускаются
+   */
+  public List<UserDto> findAllByIds(Collection<Integer> ids) {
+    return ids.stream()
+        .map(usersById::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  /**
+   * Возвращает пользователей, которые есть в копии.
+   *
+   * @param emails адреса электронной почты пользователей
+   * @return найденные пользователи; отсутствующие в копии адреса пропускаются
+   */
+  public List<UserDto> findAllByEmails(Collection<String> emails) {
+    return emails.stream()
+        .map(usersByEmail::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  /**
+   * Сохраняет новое состояние пользователя. Если у пользователя изменился email, запись по
+   * старому адресу удаляется.
+   *
+   * @param user пользователь после изменения
+   */
+  public synchronized void put(UserDto user) {
+    UserDto previous = usersById.put(user.getId(), user);
+    if (previous != null) {
+      usersByEmail.remove(previous.getEmail(), previous);
+    }
+    usersByEmail.put(user.getEmail(), user);
+  }
+
+  /**
+   * Удаляет пользователя из копии.
+   *
+   * @param id идентификатор удаленного пользователя
+   */
+  public synchronized void remove(int id) {
+    UserDto previous = usersById.remove(id);
+    if (previous != null) {
+      usersByEmail.remove(previous.getEmail(), previous);
+    }
+  }
+
+  /**
+   * Возвращает количество пользователей в копии.
+   *
+   * @return размер копии
+   */
+  public int size() {
+    return usersById.size();
+  }
+}
@@ -1,7 +1,9 @@
 package ru.baysarov.statistic.service;
 
+import java.util.Collection;
 import java.util.List;
 import ru.baysarov.statistic.dto.UserDto;
+import ru.baysarov.statistic.dto.UserWithRolesDto;
 
 public interface UserService {
 
@@ -11,4 +13,10 @@ public interface UserService {
 
   List<String> getUserRoles(String email);
 
+  UserWithRolesDto getUserWithRoles(String email);
+
+  List<UserDto> getUsersByIds(Collection<Integer> ids);
+
+  List<UserDto> getUsersByEmails(Collection<String> emails);
+
 }
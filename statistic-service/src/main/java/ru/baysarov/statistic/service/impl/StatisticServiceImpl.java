@@ -10,8 +10,8 @@ import ru.baysarov.statistic.Repostiory.TaskRepository;
 import ru.baysarov.statistic.Repostiory.TimeEntryRepository;
 import ru.baysarov.statistic.dto.TaskStatusStatisticsDto;
 import ru.baysarov.statistic.dto.UserDto;
-import ru.baysarov.statistic.feign.UserClient;
 import ru.baysarov.statistic.service.StatisticService;
+import ru.baysarov.statistic.service.UserService;
 
 /**
  * Реализация сервиса статистики, предоставляющего отчеты о затраченном времени и статистику по
@@ -23,20 +23,20 @@ public class StatisticServiceImpl implements StatisticService {
 
   private final TaskRepository taskRepository;
   private final TimeEntryRepository timeEntryRepository;
-  private final UserClient userClient;
+  private final UserService userService;
 
   /**
    * Конструктор класса StatisticServiceImpl.
    *
    * @param taskRepository      репозиторий задач
    * @param timeEntryRepository репозиторий временных записей
-   * @param userClient          клиент для взаимодействия с пользователями
+   * @param userService         сервис для работы с пользователями
    */
   public StatisticServiceImpl(TaskRepository taskRepository,
-      TimeEntryRepository timeEntryRepository, UserClient userClient) {
+      TimeEntryRepository timeEntryRepository, UserService userService) {
     this.taskRepository = taskRepository;
     this.timeEntryRepository = timeEntryRepository;
-    this.userClient = userClient;
+    this.userService = userService;
   }
 
   /**
@@ -62,7 +62,7 @@ public class StatisticServiceImpl implements StatisticService {
     if (isManager) {
       entries = timeEntryRepository.findByDateBetween(startDate, endDate);
     } else {
-      UserDto userDto = userClient.getUserByEmail(userEmail).getBody();
+      UserDto userDto = userService.getUserByEmail(userEmail);
       entries = timeEntryRepository.findByUserIdAndDateBetween(userDto.getId(), startDate, endDate);
     }
 
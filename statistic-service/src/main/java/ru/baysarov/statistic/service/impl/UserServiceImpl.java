@@ -1,33 +1,130 @@
 package ru.baysarov.statistic.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import org.springframework.stereotype.Service;
 import ru.baysarov.statistic.dto.UserDto;
+import ru.baysarov.statistic.dto.UserEmailsRequest;
+import ru.baysarov.statistic.dto.UserIdsRequest;
+import ru.baysarov.statistic.dto.UserWithRolesDto;
 import ru.baysarov.statistic.feign.UserClient;
+import ru.baysarov.statistic.security.AuthenticatedUser;
+import ru.baysarov.statistic.service.UserReplica;
 import ru.baysarov.statistic.service.UserService;
 
-
+/**
+ * Реализация сервиса для работы с пользователями.
+ * <p>
+ * Данные текущего пользователя берутся из подписанных шлюзом заголовков
+ * ({@link AuthenticatedUser}), остальные пользователи - из локальной копии справочника
+ * ({@link UserReplica}), и только отсутствующие в ней запрашиваются в Auth-сервисе. Роли других
+ * пользователей, по которым проверяются права, всегда запрашиваются в Auth-сервисе.
+ */
 @Service
 public class UserServiceImpl implements UserService {
 
   private final UserClient userClient;
+  private final UserReplica userReplica;
 
-  public UserServiceImpl(UserClient userClient) {
+  public UserServiceImpl(UserClient userClient, UserReplica userReplica) {
     this.userClient = userClient;
+    this.userReplica = userReplica;
   }
 
   @Override
   public List<String> getUserRoles(String email) {
+    AuthenticatedUser currentUser = AuthenticatedUser.currentWithEmail(email);
+    if (currentUser != null) {
+      return currentUser.getRoles();
+    }
     return userClient.getUserRoles(email);
   }
 
   @Override
   public UserDto getUserById(int id) {
+    AuthenticatedUser currentUser = AuthenticatedUser.current();
+    if (currentUser != null && currentUser.getId() == id) {
+      return new UserDto(currentUser.getId(), currentUser.getEmail());
+    }
+    UserDto replicated = userReplica.findById(id);
+    if (replicated != null) {
+      return replicated;
+    }
     return userClient.getUserById(id).getBody();
   }
 
   @Override
   public UserDto getUserByEmail(String email) {
+    AuthenticatedUser currentUser = AuthenticatedUser.currentWithEmail(email);
+    if (currentUser != null) {
+      return new UserDto(currentUser.getId(), currentUser.getEmail());
+    }
+    UserDto replicated = userReplica.findByEmail(email);
+    if (replicated != null) {
+      return replicated;
+    }
     return userClient.getUserByEmail(email).getBody();
   }
+
+  /**
+   * Получает пользователя вместе с его ролями по email. Для проверки прав достаточно одного
+   * обращения к Auth-сервису вместо отдельных запросов пользователя и ролей.
+   *
+   * @param email email пользователя.
+   * @return объект UserWithRolesDto с информацией о пользователе и его ролях.
+   */
+  @Override
+  public UserWithRolesDto getUserWithRoles(String email) {
+    AuthenticatedUser currentUser = AuthenticatedUser.currentWithEmail(email);
+    if (currentUser != null) {
+      return new UserWithRolesDto(currentUser.getId(), currentUser.getEmail(),
+          currentUser.getRoles());
+    }
+    return userClient.getUserWithRoles(email).getBody();
+  }
+
+  /**
+   * Получает пользователей по идентификаторам. Отсутствующие в локальной копии пользователи
+   * запрашиваются в Auth-сервисе одним запросом.
+   *
+   * @param ids идентификаторы пользователей.
+   * @return найденные пользователи; не найденные идентификаторы пропускаются.
+   */
+  @Override
+  public List<UserDto> getUsersByIds(Collection<Integer> ids) {
+    List<UserDto> users = new ArrayList<>(ids.size());
+    Set<Integer> missing = new LinkedHashSet<>(ids);
+    for (UserDto replicated : userReplica.findAllByIds(ids)) {
+      users.add(replicated);
+      missing.remove(replicated.getId());
+    }
+    if (!missing.isEmpty()) {
+      users.addAll(userClient.getUsersByIds(new UserIdsRequest(new ArrayList<>(missing))));
+    }
+    return users;
+  }
+
+  /**
+   * Получает пользователей по адресам электронной почты. Отсутствующие в локальной копии
+   * пользователи запрашиваются в Auth-сервисе одним запросом.
+   *
+   * @param emails адреса электронной почты пользователей.
+   * @return найденные пользователи; не найденные адреса пропускаются.
+   */
+  @Override
+  public List<UserDto> getUsersByEmails(Collection<String> emails) {
+    List<UserDto> users = new ArrayList<>(emails.size());
+    Set<String> missing = new LinkedHashSet<>(emails);
+    for (UserDto replicated : userReplica.findAllByEmails(emails)) {
+      users.add(replicated);
+      missing.remove(replicated.getEmail());
+    }
+    if (!missing.isEmpty()) {
+      users.addAll(userClient.getUsersByEmails(new UserEmailsRequest(new ArrayList<>(missing))));
+    }
+    return users;
+  }
 }
@@ -26,6 +26,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.baysarov.statistic.dto.TaskStatusStatisticsDto;
+import ru.baysarov.statistic.dto.UserWithRolesDto;
 import ru.baysarov.statistic.service.StatisticService;
 import ru.baysarov.statistic.service.UserService;
 
@@ -74,7 +75,8 @@ class StatisticControllerTest {
     String email = "manager@test.com";
     ByteArrayInputStream report = new ByteArrayInputStream("Test report content".getBytes());
 
-    when(userService.getUserRoles(email)).thenReturn(Collections.singletonList("MANAGER"));
+    when(userService.getUserWithRoles(email))
+        .thenReturn(new UserWithRolesDto(1, email, Collections.singletonList("MANAGER")));
     when(statisticService.timeSpentReport(eq(email), eq(null), eq(null), eq(true)))
         .thenReturn(report);
 
@@ -93,7 +95,8 @@ class StatisticControllerTest {
   @Test
   void getTimeReportTeam_ShouldReturnForbidden_WhenUserIsNotManager() throws Exception {
     String email = "employee@test.com";
-    when(userService.getUserRoles(email)).thenReturn(Collections.singletonList("EMPLOYEE"));
+    when(userService.getUserWithRoles(email))
+        .thenReturn(new UserWithRolesDto(1, email, Collections.singletonList("EMPLOYEE")));
 
     mockMvc.perform(get("/api/v1/statistic/time_spent_report/manager")
             .header("X-auth-user-email", email))
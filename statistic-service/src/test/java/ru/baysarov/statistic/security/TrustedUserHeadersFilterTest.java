@@ -0,0 +1,153 @@
+package ru.baysarov.statistic.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TrustedUserHeadersFilterTest {
+
+  private static final String SECRET = "test-secret";
+
+  private TrustedUserHeadersFilter filter;
+  private MockHttpServletResponse response;
+  private MockFilterChain filterChain;
+
+  @BeforeEach
+  void setUp() {
+    filter = new TrustedUserHeadersFilter(SECRET, Duration.ofSeconds(60));
+    response = new MockHttpServletResponse();
+    filterChain = new MockFilterChain();
+  }
+
+  @Test
+  void doFilter_ShouldStoreUser_WhenSignatureIsValid() throws Exception {
+    MockHttpServletRequest request = signedRequest("user@test.com", "4", "ADMIN",
+        Instant.now().getEpochSecond());
+
+    filter.doFilter(request, response, filterChain);
+
+    AuthenticatedUser user = (AuthenticatedUser) request.getAttribute(
+        AuthenticatedUser.REQUEST_ATTRIBUTE);
+    assertNotNull(user);
+    assertEquals(4, user.getId());
+    assertEquals(List.of("ADMIN"), user.getRoles());
+    assertNotNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldReject_WhenSignatureIsInvalid() throws Exception {
+    MockHttpServletRequest request = signedRequest("user@test.com", "4", "ADMIN",
+        Instant.now().getEpochSecond());
+    request.removeHeader(TrustedUserHeadersFilter.USER_ROLES_HEADER);
+    request.addHeader(TrustedUserHeadersFilter.USER_ROLES_HEADER, "MANAGER");
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals(401, response.getStatus());
+    assertNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldReject_WhenHeadersAreExpired() throws Exception {
+    MockHttpServletRequest request = signedRequest("user@test.com", "4", "ADMIN",
+        Instant.now().minusSeconds(600).getEpochSecond());
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals(401, response.getStatus());
+  }
+
+  @Test
+  void doFilter_ShouldReject_WhenSignatureIsMissing() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(TrustedUserHeadersFilter.USER_EMAIL_HEADER, "user@test.com");
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals(401, response.getStatus());
+    assertNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldPassThrough_WhenSecretIsNotSet() throws Exception {
+    filter = new TrustedUserHeadersFilter("", Duration.ofSeconds(60));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(TrustedUserHeadersFilter.USER_EMAIL_HEADER, "user@test.com");
+
+    filter.doFilter(request, response, filterChain);
+
+    assertNotNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldPassThrough_WhenUserHeadersAreMissing() throws Exception {
+    filter.doFilter(new MockHttpServletRequest(), response, filterChain);
+
+    assertNotNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldPassWithoutUser_WhenOnlyEmailIsSigned() throws Exception {
+    long timestamp = Instant.now().getEpochSecond();
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(TrustedUserHeadersFilter.USER_EMAIL_HEADER, "user@test.com");
+    request.addHeader(TrustedUserHeadersFilter.TIMESTAMP_HEADER, String.valueOf(timestamp));
+    request.addHeader(TrustedUserHeadersFilter.SIGNATURE_HEADER,
+        sign("user@test.com\n" + timestamp));
+
+    filter.doFilter(request, response, filterChain);
+
+    assertNull(request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE));
+    assertNotNull(filterChain.getRequest());
+  }
+
+  @Test
+  void doFilter_ShouldReject_WhenRolesAreAddedToEmailSignature() throws Exception {
+    long timestamp = Instant.now().getEpochSecond();
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(TrustedUserHeadersFilter.USER_EMAIL_HEADER, "user@test.com");
+    request.addHeader(TrustedUserHeadersFilter.USER_ID_HEADER, "4");
+    request.addHeader(TrustedUserHeadersFilter.USER_ROLES_HEADER, "ADMIN");
+    request.addHeader(TrustedUserHeadersFilter.TIMESTAMP_HEADER, String.valueOf(timestamp));
+    request.addHeader(TrustedUserHeadersFilter.SIGNATURE_HEADER,
+        sign("user@test.com\n" + timestamp));
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals(401, response.getStatus());
+    assertNull(filterChain.getRequest());
+  }
+
+  private MockHttpServletRequest signedRequest(String email, String userId, String roles,
+      long timestamp) throws Exception {
+    String signature = sign(email + "\n" + userId + "\n" + roles + "\n" + timestamp);
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(TrustedUserHeadersFilter.USER_EMAIL_HEADER, email);
+    request.addHeader(TrustedUserHeadersFilter.USER_ID_HEADER, userId);
+    request.addHeader(TrustedUserHeadersFilter.USER_ROLES_HEADER, roles);
+    request.addHeader(TrustedUserHeadersFilter.TIMESTAMP_HEADER, String.valueOf(timestamp));
+    request.addHeader(TrustedUserHeadersFilter.SIGNATURE_HEADER, signature);
+    return request;
+  }
+
+  private static String sign(String payload) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return Base64.getEncoder()
+        .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+  }
+}
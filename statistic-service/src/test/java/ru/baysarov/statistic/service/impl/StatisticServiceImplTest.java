@@ -14,7 +14,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.ResponseEntity;
 
 import ru.baysarov.statistic.Model.Task;
 import ru.baysarov.statistic.Model.TimeEntry;
@@ -22,7 +21,7 @@ import ru.baysarov.statistic.Repostiory.TaskRepository;
 import ru.baysarov.statistic.Repostiory.TimeEntryRepository;
 import ru.baysarov.statistic.dto.TaskStatusStatisticsDto;
 import ru.baysarov.statistic.dto.UserDto;
-import ru.baysarov.statistic.feign.UserClient;
+import ru.baysarov.statistic.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
 class StatisticServiceImplTest {
@@ -34,7 +33,7 @@ class StatisticServiceImplTest {
   private TimeEntryRepository timeEntryRepository;
 
   @Mock
-  private UserClient userClient;
+  private UserService userService;
 
   @InjectMocks
   private StatisticServiceImpl statisticService;
@@ -88,7 +87,7 @@ class StatisticServiceImplTest {
     entry1.setUserId(userDto.getId());
     entry1.setTask(task);
 
-    when(userClient.getUserByEmail("test@bk.ru")).thenReturn(ResponseEntity.ok(userDto));
+    when(userService.getUserByEmail("test@bk.ru")).thenReturn(userDto);
 
     when(timeEntryRepository.findByUserIdAndDateBetween(eq(userDto.getId()), any(), any()))
         .thenReturn(Arrays.asList(entry1));
@@ -0,0 +1,19 @@
+package ru.baysarov.task.service.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запрос пакетного получения пользователей по идентификаторам.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIdsRequest {
+
+  private List<Integer> ids;
+}
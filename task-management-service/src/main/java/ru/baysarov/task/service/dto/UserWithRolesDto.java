@@ -0,0 +1,21 @@
+package ru.baysarov.task.service.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Пользователь вместе с его ролями, используется для проверки прав доступа.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserWithRolesDto {
+
+  private int id;
+  private String email;
+  private List<String> roles;
+}
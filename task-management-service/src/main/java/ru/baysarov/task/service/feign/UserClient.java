@@ -5,7 +5,12 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserEmailsRequest;
+import ru.baysarov.task.service.dto.UserIdsRequest;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
 
 /**
  * Клиент для взаимодействия с сервисом аутентификации (AUTH) с использованием Feign.
@@ -33,4 +38,31 @@ public interface UserClient {
    */
   @GetMapping("/user/{email}/roles")
   List<String> getUserRoles(@PathVariable("email") String email);
+
+  /**
+   * Получает пользователя вместе с его ролями по адресу электронной почты одним запросом.
+   *
+   * @param email адрес электронной почты пользователя
+   * @return ResponseEntity с данными пользователя и его ролями
+   */
+  @GetMapping("/user/{email}/with-roles")
+  ResponseEntity<UserWithRolesDto> getUserWithRoles(@PathVariable("email") String email);
+
+  /**
+   * Получает пользователей по списку идентификаторов одним запросом.
+   *
+   * @param request запрос со списком идентификаторов
+   * @return найденные пользователи; не найденные идентификаторы пропускаются
+   */
+  @PostMapping("/user/batch/ids")
+  List<UserDto> getUsersByIds(@RequestBody UserIdsRequest request);
+
+  /**
+   * Получает пользователей по списку адресов электронной почты одним запросом.
+   *
+   * @param request запрос со списком адресов электронной почты
+   * @return найденные пользователи; не найденные адреса пропускаются
+   */
+  @PostMapping("/user/batch/emails")
+  List<UserDto> getUsersByEmails(@RequestBody UserEmailsRequest request);
 }
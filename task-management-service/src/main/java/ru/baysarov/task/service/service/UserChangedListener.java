@@ -0,0 +1,54 @@
+package ru.baysarov.task.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Service;
+import ru.baysarov.task.service.config.KafkaPartitionAssigner;
+import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
+
+/**
+ * Слушатель топика {@code user_changed}.
+ * <p>
+ * Ключ сообщения - идентификатор пользователя, значение - JSON с идентификатором, email и ролями
+ * пользователя или {@code null}, если пользователь удален. Каждый экземпляр читает все разделы
+ * топика с начала без группы потребителей (см. {@link KafkaPartitionAssigner}), поэтому после
+ * запуска {@link UserReplica} восстанавливается из сжатого топика.
+ */
+@Service
+@Slf4j
+public class UserChangedListener {
+
+  /** Топик изменений пользователей. */
+  public static final String USER_CHANGED_TOPIC = "user_changed";
+
+  private final UserReplica userReplica;
+  private final ObjectMapper objectMapper;
+
+  public UserChangedListener(UserReplica userReplica, ObjectMapper objectMapper,
+      KafkaPartitionAssigner kafkaPartitionAssigner) {
+    this.userReplica = userReplica;
+    this.objectMapper = objectMapper;
+    kafkaPartitionAssigner.listen(USER_CHANGED_TOPIC, this::onUserChanged);
+  }
+
+  /**
+   * Обрабатывает событие изменения пользователя.
+   *
+   * @param record сообщение с идентификатором и состоянием пользователя
+   */
+  public void onUserChanged(ConsumerRecord<String, String> record) {
+    try {
+      if (record.value() == null) {
+        userReplica.remove(Integer.parseInt(record.key()));
+        return;
+      }
+      UserWithRolesDto user = objectMapper.readValue(record.value(), UserWithRolesDto.class);
+      userReplica.put(new UserDto(user.getId(), user.getEmail()));
+    } catch (JsonProcessingException | NumberFormatException e) {
+      log.warn("Skipping malformed user change {}: {}", record.key(), e.getMessage());
+    }
+  }
+}
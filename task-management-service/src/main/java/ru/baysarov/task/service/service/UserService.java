@@ -1,7 +1,9 @@
 package ru.baysarov.task.service.service;
 
+import java.util.Collection;
 import java.util.List;
 import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
 
 public interface UserService {
 
@@ -11,4 +13,10 @@ public interface UserService {
 
   List<String> getUserRoles(String email);
 
+  UserWithRolesDto getUserWithRoles(String email);
+
+  List<UserDto> getUsersByIds(Collection<Integer> ids);
+
+  List<UserDto> getUsersByEmails(Collection<String> emails);
+
 }
@@ -14,6 +14,7 @@ import ru.baysarov.task.service.dto.TaskDtoOut;
 import ru.baysarov.task.service.dto.TaskResponseDto;
 import ru.baysarov.task.service.dto.TimeEntryResponseDto;
 import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
 import ru.baysarov.task.service.exception.TaskAccessException;
 import ru.baysarov.task.service.exception.TaskNotFoundException;
 import ru.baysarov.task.service.exception.UserNotFoundException;
@@ -200,8 +201,8 @@ public class TaskServiceImpl implements TaskService {
     Task task = taskRepository.findById(taskId)
         .orElseThrow(() -> new TaskNotFoundException(taskId));
 
-    UserDto user = userService.getUserByEmail(userEmail);
-    List<String> userRoles = userService.getUserRoles(userEmail);
+    UserWithRolesDto user = userService.getUserWithRoles(userEmail);
+    List<String> userRoles = user.getRoles();
 
     if (!task.getAuthorId().equals(user.getId()) && !userRoles.contains("ADMIN")
         && !userRoles.contains("MANAGER")) {
@@ -22,6 +22,7 @@ import org.springframework.data.domain.PageRequest;
 import ru.baysarov.task.service.dto.TaskDtoIn;
 import ru.baysarov.task.service.dto.TaskDtoOut;
 import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
 import ru.baysarov.task.service.enums.TaskPriority;
 import ru.baysarov.task.service.enums.TaskStatus;
 import ru.baysarov.task.service.exception.TaskAccessException;
@@ -166,8 +167,8 @@ class TaskServiceImplTest {
   void setTaskDeadline_ShouldSetDeadline_WhenValidData() {
     LocalDateTime deadline = LocalDateTime.now().plusDays(3);
     when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-    when(userService.getUserByEmail("author@test.com")).thenReturn(
-        new UserDto(3, "author@test.com"));
+    when(userService.getUserWithRoles("author@test.com")).thenReturn(
+        new UserWithRolesDto(3, "author@test.com", List.of("USER")));
 
     taskService.setTaskDeadline(1, deadline, "author@test.com");
 
@@ -186,8 +187,8 @@ class TaskServiceImplTest {
   @Test
   void setTaskDeadline_ShouldThrowTaskAccessException_WhenUserDoesNotHavePermission() {
     when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-    when(userService.getUserByEmail("user@test.com")).thenReturn(new UserDto(4, "user@test.com"));
-    when(userService.getUserRoles("user@test.com")).thenReturn(List.of("USER"));
+    when(userService.getUserWithRoles("user@test.com"))
+        .thenReturn(new UserWithRolesDto(4, "user@test.com", List.of("USER")));
 
     assertThrows(TaskAccessException.class,
         () -> taskService.setTaskDeadline(1, LocalDateTime.now(), "user@test.com"));
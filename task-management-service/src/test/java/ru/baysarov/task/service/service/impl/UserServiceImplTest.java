@@ -0,0 +1,97 @@
+package ru.baysarov.task.service.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import ru.baysarov.task.service.dto.UserDto;
+import ru.baysarov.task.service.dto.UserWithRolesDto;
+import ru.baysarov.task.service.feign.UserClient;
+import ru.baysarov.task.service.service.UserReplica;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+  @Mock
+  private UserClient userClient;
+
+  private UserReplica userReplica;
+  private UserServiceImpl userService;
+
+  @BeforeEach
+  void setUp() {
+    userReplica = new UserReplica();
+    userService = new UserServiceImpl(userClient, userReplica);
+  }
+
+  @Test
+  void getUserByEmail_ShouldUseReplica_WhenUserIsReplicated() {
+    userReplica.put(new UserDto(1, "user@test.com"));
+
+    UserDto user = userService.getUserByEmail("user@test.com");
+
+    assertEquals(1, user.getId());
+    verify(userClient, never()).getUserByEmail(any());
+  }
+
+  @Test
+  void getUserByEmail_ShouldCallAuth_WhenUserIsNotReplicated() {
+    when(userClient.getUserByEmail("user@test.com"))
+        .thenReturn(ResponseEntity.ok(new UserDto(1, "user@test.com")));
+
+    UserDto user = userService.getUserByEmail("user@test.com");
+
+    assertEquals(1, user.getId());
+  }
+
+  @Test
+  void getUserWithRoles_ShouldCallAuth_EvenWhenUserIsReplicated() {
+    userReplica.put(new UserDto(1, "user@test.com"));
+    when(userClient.getUserWithRoles("user@test.com"))
+        .thenReturn(ResponseEntity.ok(
+            new UserWithRolesDto(1, "user@test.com", List.of("MANAGER"))));
+
+    assertEquals(List.of("MANAGER"), userService.getUserWithRoles("user@test.com").getRoles());
+  }
+
+  @Test
+  void getUserByEmail_ShouldUseNewEmail_WhenEmailChanged() {
+    userReplica.put(new UserDto(1, "old@test.com"));
+    userReplica.put(new UserDto(1, "new@test.com"));
+
+    assertEquals(1, userService.getUserByEmail("new@test.com").getId());
+    verify(userClient, never()).getUserByEmail(any());
+  }
+
+  @Test
+  void getUserById_ShouldCallAuth_WhenUserWasRemoved() {
+    userReplica.put(new UserDto(1, "user@test.com"));
+    userReplica.remove(1);
+    when(userClient.getUserById(1)).thenReturn(ResponseEntity.ok(new UserDto(1, "user@test.com")));
+
+    userService.getUserById(1);
+
+    verify(userClient).getUserById(1);
+  }
+
+  @Test
+  void getUsersByIds_ShouldRequestOnlyMissingUsers() {
+    userReplica.put(new UserDto(1, "first@test.com"));
+    when(userClient.getUsersByIds(argThat(request -> request.getIds().equals(List.of(2)))))
+        .thenReturn(List.of(new UserDto(2, "second@test.com")));
+
+    List<UserDto> users = userService.getUsersByIds(List.of(1, 2));
+
+    assertEquals(2, users.size());
+  }
+}